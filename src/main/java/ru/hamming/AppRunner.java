@@ -1,4 +1,580 @@
 package ru.hamming;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Нагрузочный драйвер для контейнеров.
+ * Воспроизводит настраиваемую смесь операций в нескольких потоках и печатает
+ * пропускную способность, процентили задержек и скорость выделения памяти.
+ * <p>
+ * Параметры передаются в виде {@code --имя=значение}:
+ * <ul>
+ *     <li>{@code --add}, {@code --add-at}, {@code --get}, {@code --remove-at}, {@code --remove-value} -
+ *     доли операций в процентах, в сумме 100;</li>
+ *     <li>{@code --distribution} - распределение ключей: uniform, zipfian или sequential;</li>
+ *     <li>{@code --size} - начальный размер контейнера;</li>
+ *     <li>{@code --threads} и {@code --thread-type} (platform или virtual) - количество и вид потоков;</li>
+ *     <li>{@code --operations} и {@code --warmup} - количество измеряемых и разогревочных операций на поток;</li>
+ *     <li>{@code --backend} (container или sharded) и {@code --shards} - тестируемый контейнер.</li>
+ * </ul>
+ * Потоки создаются через {@link Thread.Builder}, в том числе виртуальные,
+ * поэтому драйвер требует Java 21: в Java 20 это preview API.
+ *
+ * @version 1.0
+ * @author Hamming
+ */
 public class AppRunner {
+
+    /**
+     * Точка входа нагрузочного драйвера.
+     *
+     * @param args параметры нагрузки в виде --имя=значение
+     * @throws InterruptedException если ожидание потоков нагрузки было прервано
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Workload workload;
+        try {
+            workload = Workload.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Workload.USAGE);
+            System.exit(1);
+            return;
+        }
+        if (workload.warmupOperations > 0) {
+            run(workload, workload.warmupOperations);
+        }
+        System.out.println(run(workload, workload.operations));
+    }
+
+    /**
+     * Выполняет один прогон нагрузки на свежем контейнере.
+     *
+     * @param workload параметры нагрузки
+     * @param operationsPerThread количество операций на поток
+     * @return отчет о прогоне
+     * @throws InterruptedException если ожидание потоков было прервано
+     */
+    static LoadReport run(Workload workload, int operationsPerThread) throws InterruptedException {
+        Backend backend = workload.newBackend();
+        for (long value = 0; value < workload.size; value++) {
+            backend.add(value);
+        }
+        KeyDistribution.Sampler sampler = workload.distribution.sampler(Math.max(workload.size, 1));
+
+        Worker[] workers = new Worker[workload.threads];
+        Thread[] threads = new Thread[workload.threads];
+        CountDownLatch startGate = new CountDownLatch(1);
+        ThreadFactory factory = workload.virtualThreads
+                ? Thread.ofVirtual().name("load-", 0).factory()
+                : Thread.ofPlatform().name("load-", 0).factory();
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(workload, backend, sampler, operationsPerThread, i, startGate);
+            threads[i] = factory.newThread(workers[i]);
+            threads[i].start();
+        }
+
+        // Виртуальные потоки не ведут собственных счетчиков выделения,
+        // поэтому для них выделение измеряется по всем потокам JVM
+        long totalAllocatedBefore = totalAllocatedBytes();
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long totalAllocatedAfter = totalAllocatedBytes();
+        long totalAllocated = totalAllocatedBefore >= 0 && totalAllocatedAfter >= 0
+                ? totalAllocatedAfter - totalAllocatedBefore
+                : -1;
+
+        return new LoadReport(workload, workers, elapsedNanos, totalAllocated);
+    }
+
+    /**
+     * Возвращает количество байт, выделенных всеми потоками JVM с ее запуска.
+     *
+     * @return количество байт или -1 если счетчики выделения недоступны
+     */
+    private static long totalAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()
+                && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Операции нагрузки.
+     */
+    enum Operation {
+        ADD, ADD_AT, GET, REMOVE_AT, REMOVE_VALUE
+    }
+
+    /**
+     * Распределения ключей, по которым выбираются индексы и значения.
+     */
+    enum KeyDistribution {
+        UNIFORM, ZIPFIAN, SEQUENTIAL;
+
+        /**
+         * Генератор ключей в диапазоне [0, n). Состояние, зависящее от потока, передается явно.
+         */
+        interface Sampler {
+            /**
+             * Возвращает очередной ключ.
+             *
+             * @param random генератор случайных чисел потока
+             * @param sequence порядковый номер операции в потоке
+             * @return ключ в диапазоне [0, n)
+             */
+            long next(SplittableRandom random, long sequence);
+        }
+
+        /**
+         * Создает генератор ключей для диапазона [0, n).
+         *
+         * @param n размер диапазона ключей
+         * @return генератор ключей
+         */
+        Sampler sampler(long n) {
+            return switch (this) {
+                case UNIFORM -> (random, sequence) -> random.nextLong(n);
+                case SEQUENTIAL -> (random, sequence) -> sequence % n;
+                case ZIPFIAN -> zipfian(n, 0.99);
+            };
+        }
+
+        /**
+         * Генератор Zipf-распределения по методу Gray et al. (как в YCSB):
+         * ключ 0 самый частый, частота ключа k убывает как 1 / (k + 1)^theta.
+         *
+         * @param n размер диапазона ключей
+         * @param theta параметр асимметрии (0 < theta < 1)
+         * @return генератор ключей
+         */
+        private static Sampler zipfian(long n, double theta) {
+            double zetaN = 0;
+            for (long i = 1; i <= n; i++) {
+                zetaN += 1 / Math.pow(i, theta);
+            }
+            double zeta2 = 1 + 1 / Math.pow(2, theta);
+            double alpha = 1 / (1 - theta);
+            double eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetaN);
+            double halfPow = 1 + Math.pow(0.5, theta);
+            double zeta = zetaN;
+            return (random, sequence) -> {
+                double u = random.nextDouble();
+                double uz = u * zeta;
+                if (uz < 1) {
+                    return 0;
+                }
+                if (uz < halfPow) {
+                    return Math.min(1, n - 1);
+                }
+                return Math.min((long) (n * Math.pow(eta * u - eta + 1, alpha)), n - 1);
+            };
+        }
+    }
+
+    /**
+     * Общий интерфейс тестируемых контейнеров.
+     */
+    interface Backend {
+        void add(Long value);
+
+        void add(int index, Long value);
+
+        Long get(int index);
+
+        Long remove(int index);
+
+        boolean remove(Long value);
+
+        int size();
+
+        /**
+         * Оборачивает ClassContainer.
+         *
+         * @param container контейнер
+         * @return обертка
+         */
+        static Backend of(ClassContainer<Long> container) {
+            return new Backend() {
+                @Override
+                public void add(Long value) {
+                    container.add(value);
+                }
+
+                @Override
+                public void add(int index, Long value) {
+                    container.add(index, value);
+                }
+
+                @Override
+                public Long get(int index) {
+                    return container.get(index);
+                }
+
+                @Override
+                public Long remove(int index) {
+                    return container.remove(index);
+                }
+
+                @Override
+                public boolean remove(Long value) {
+                    return container.remove(value);
+                }
+
+                @Override
+                public int size() {
+                    return container.size();
+                }
+            };
+        }
+
+        /**
+         * Оборачивает ShardedClassContainer.
+         *
+         * @param container контейнер
+         * @return обертка
+         */
+        static Backend of(ShardedClassContainer<Long> container) {
+            return new Backend() {
+                @Override
+                public void add(Long value) {
+                    container.add(value);
+                }
+
+                @Override
+                public void add(int index, Long value) {
+                    container.add(index, value);
+                }
+
+                @Override
+                public Long get(int index) {
+                    return container.get(index);
+                }
+
+                @Override
+                public Long remove(int index) {
+                    return container.remove(index);
+                }
+
+                @Override
+                public boolean remove(Long value) {
+                    return container.remove(value);
+                }
+
+                @Override
+                public int size() {
+                    return container.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Параметры нагрузки.
+     */
+    static final class Workload {
+
+        static final String USAGE = "Usage: AppRunner [--add=40] [--add-at=5] [--get=40] [--remove-at=10]"
+                + " [--remove-value=5] [--distribution=uniform|zipfian|sequential] [--size=10000]"
+                + " [--threads=4] [--thread-type=platform|virtual] [--operations=100000] [--warmup=20000]"
+                + " [--backend=container|sharded] [--shards=8]";
+
+        final Operation[] operationTable = new Operation[100];
+        final int[] percentages = {40, 5, 40, 10, 5};
+        KeyDistribution distribution = KeyDistribution.UNIFORM;
+        int size = 10_000;
+        int threads = 4;
+        boolean virtualThreads;
+        int operations = 100_000;
+        int warmupOperations = 20_000;
+        boolean sharded;
+        int shards = 8;
+
+        /**
+         * Разбирает параметры командной строки.
+         *
+         * @param args параметры в виде --имя=значение
+         * @return параметры нагрузки
+         * @throws IllegalArgumentException если параметр неизвестен или имеет неверное значение
+         */
+        static Workload parse(String[] args) {
+            Workload workload = new Workload();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("Malformed argument: " + arg);
+                }
+                String name = arg.substring(2, separator);
+                String value = arg.substring(separator + 1);
+                switch (name) {
+                    case "add" -> workload.percentages[Operation.ADD.ordinal()] = parseInt(name, value, 0);
+                    case "add-at" -> workload.percentages[Operation.ADD_AT.ordinal()] = parseInt(name, value, 0);
+                    case "get" -> workload.percentages[Operation.GET.ordinal()] = parseInt(name, value, 0);
+                    case "remove-at" -> workload.percentages[Operation.REMOVE_AT.ordinal()] = parseInt(name, value, 0);
+                    case "remove-value" ->
+                            workload.percentages[Operation.REMOVE_VALUE.ordinal()] = parseInt(name, value, 0);
+                    case "distribution" -> workload.distribution = parseEnum(name, value);
+                    case "size" -> workload.size = parseInt(name, value, 0);
+                    case "threads" -> workload.threads = parseInt(name, value, 1);
+                    case "thread-type" -> workload.virtualThreads = parseChoice(name, value, "virtual", "platform");
+                    case "operations" -> workload.operations = parseInt(name, value, 1);
+                    case "warmup" -> workload.warmupOperations = parseInt(name, value, 0);
+                    case "backend" -> workload.sharded = parseChoice(name, value, "sharded", "container");
+                    case "shards" -> workload.shards = parseInt(name, value, 1);
+                    default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+                }
+            }
+            workload.buildOperationTable();
+            return workload;
+        }
+
+        /**
+         * Создает свежий тестируемый контейнер.
+         *
+         * @return обертка контейнера
+         */
+        Backend newBackend() {
+            return sharded
+                    ? Backend.of(new ShardedClassContainer<>(Integer.MAX_VALUE, shards))
+                    : Backend.of(new ClassContainer<>(Integer.MAX_VALUE));
+        }
+
+        /**
+         * Заполняет таблицу выбора операции по случайному числу от 0 до 99.
+         *
+         * @throws IllegalArgumentException если доли операций в сумме не равны 100
+         */
+        private void buildOperationTable() {
+            int total = Arrays.stream(percentages).sum();
+            if (total != 100) {
+                throw new IllegalArgumentException("Operation percentages must add up to 100, got " + total);
+            }
+            int position = 0;
+            for (Operation operation : Operation.values()) {
+                for (int i = 0; i < percentages[operation.ordinal()]; i++) {
+                    operationTable[position++] = operation;
+                }
+            }
+        }
+
+        private static int parseInt(String name, String value, int min) {
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed < min) {
+                    throw new IllegalArgumentException("--" + name + " must be at least " + min + ": " + value);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--" + name + " must be an integer: " + value);
+            }
+        }
+
+        private static KeyDistribution parseEnum(String name, String value) {
+            try {
+                return KeyDistribution.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("--" + name + " must be uniform, zipfian or sequential: " + value);
+            }
+        }
+
+        private static boolean parseChoice(String name, String value, String whenTrue, String whenFalse) {
+            if (value.equals(whenTrue)) {
+                return true;
+            }
+            if (value.equals(whenFalse)) {
+                return false;
+            }
+            throw new IllegalArgumentException("--" + name + " must be " + whenTrue + " or " + whenFalse + ": " + value);
+        }
+    }
+
+    /**
+     * Поток нагрузки: выполняет операции и записывает задержку каждой из них.
+     */
+    static final class Worker implements Runnable {
+        private final Workload workload;
+        private final Backend backend;
+        private final KeyDistribution.Sampler sampler;
+        private final SplittableRandom random;
+        private final CountDownLatch startGate;
+        final long[] latencies;
+        long allocatedBytes = -1;
+        long misses;
+
+        Worker(Workload workload, Backend backend, KeyDistribution.Sampler sampler, int operations,
+               int seed, CountDownLatch startGate) {
+            this.workload = workload;
+            this.backend = backend;
+            this.sampler = sampler;
+            this.random = new SplittableRandom(seed);
+            this.startGate = startGate;
+            this.latencies = new long[operations];
+        }
+
+        @Override
+        public void run() {
+            try {
+                startGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long allocatedBefore = currentThreadAllocatedBytes();
+            for (int i = 0; i < latencies.length; i++) {
+                Operation operation = workload.operationTable[random.nextInt(100)];
+                long key = sampler.next(random, i);
+                long start = System.nanoTime();
+                if (!execute(operation, key)) {
+                    misses++;
+                }
+                latencies[i] = System.nanoTime() - start;
+            }
+            long allocatedAfter = currentThreadAllocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                allocatedBytes = allocatedAfter - allocatedBefore;
+            }
+        }
+
+        /**
+         * Выполняет одну операцию. Индекс получается из ключа по модулю текущего размера,
+         * так что при асимметричном распределении нагрузка приходится на начало контейнера.
+         *
+         * @param operation операция
+         * @param key ключ
+         * @return false если операция не нашла элемента
+         */
+        private boolean execute(Operation operation, long key) {
+            try {
+                switch (operation) {
+                    case ADD -> backend.add(key);
+                    case ADD_AT -> backend.add(index(key, 1), key);
+                    case GET -> backend.get(index(key, 0));
+                    case REMOVE_AT -> backend.remove(index(key, 0));
+                    case REMOVE_VALUE -> {
+                        return backend.remove(Long.valueOf(key));
+                    }
+                }
+                return true;
+            } catch (IndexOutOfBoundsException e) {
+                // Контейнер опустел или сжался между чтением размера и операцией
+                return false;
+            }
+        }
+
+        private int index(long key, int extra) {
+            int bound = backend.size() + extra;
+            if (bound == 0) {
+                throw new IndexOutOfBoundsException("Container is empty");
+            }
+            return (int) (key % bound);
+        }
+
+        private static long currentThreadAllocatedBytes() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                    && threadBean.isThreadAllocatedMemorySupported()
+                    && threadBean.isThreadAllocatedMemoryEnabled()) {
+                return threadBean.getCurrentThreadAllocatedBytes();
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Итоги прогона: пропускная способность, процентили задержек и выделение памяти.
+     */
+    static final class LoadReport {
+        private final Workload workload;
+        final long operations;
+        final long misses;
+        final double throughput;
+        final long[] sortedLatencies;
+        final long allocatedBytes;
+        final boolean allocationIncludesAllThreads;
+        final double elapsedSeconds;
+
+        /**
+         * Конструктор отчета.
+         *
+         * @param workload параметры нагрузки
+         * @param workers завершившиеся потоки нагрузки
+         * @param elapsedNanos длительность прогона
+         * @param totalAllocatedBytes байты, выделенные всеми потоками JVM за прогон, или -1;
+         *                            используются, если счетчики потоков нагрузки недоступны
+         */
+        LoadReport(Workload workload, Worker[] workers, long elapsedNanos, long totalAllocatedBytes) {
+            this.workload = workload;
+            long total = 0;
+            long missCount = 0;
+            long allocated = 0;
+            for (Worker worker : workers) {
+                total += worker.latencies.length;
+                missCount += worker.misses;
+                allocated = allocated < 0 || worker.allocatedBytes < 0 ? -1 : allocated + worker.allocatedBytes;
+            }
+            long[] merged = new long[(int) total];
+            int position = 0;
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, merged, position, worker.latencies.length);
+                position += worker.latencies.length;
+            }
+            Arrays.sort(merged);
+            this.operations = total;
+            this.misses = missCount;
+            this.sortedLatencies = merged;
+            this.allocationIncludesAllThreads = allocated < 0 && totalAllocatedBytes >= 0;
+            this.allocatedBytes = allocationIncludesAllThreads ? totalAllocatedBytes : allocated;
+            this.elapsedSeconds = elapsedNanos / 1e9;
+            this.throughput = total / elapsedSeconds;
+        }
+
+        /**
+         * Возвращает задержку указанного процентиля.
+         *
+         * @param percentile процентиль от 0 до 100
+         * @return задержка в наносекундах
+         */
+        long percentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT,
+                    "backend=%s threads=%d (%s) size=%d distribution=%s mix[add/add-at/get/remove-at/remove-value]=%s%n",
+                    workload.sharded ? "sharded(" + workload.shards + ")" : "container",
+                    workload.threads, workload.virtualThreads ? "virtual" : "platform",
+                    workload.size, workload.distribution.name().toLowerCase(Locale.ROOT),
+                    Arrays.toString(workload.percentages)));
+            sb.append(String.format(Locale.ROOT, "operations: %d in %.3f s, misses: %d%n",
+                    operations, elapsedSeconds, misses));
+            sb.append(String.format(Locale.ROOT, "throughput: %.0f ops/s%n", throughput));
+            sb.append(String.format(Locale.ROOT,
+                    "latency (us): p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    percentile(50) / 1e3, percentile(90) / 1e3, percentile(99) / 1e3,
+                    percentile(99.9) / 1e3, sortedLatencies[sortedLatencies.length - 1] / 1e3));
+            if (allocatedBytes < 0) {
+                sb.append("allocation: n/a (thread allocation counters are unavailable in this JVM)");
+            } else {
+                sb.append(String.format(Locale.ROOT, "allocation: %.1f MB/s, %.1f B/op",
+                        allocatedBytes / elapsedSeconds / (1024 * 1024), (double) allocatedBytes / operations));
+                if (allocationIncludesAllThreads) {
+                    sb.append(" (all JVM threads)");
+                }
+            }
+            return sb.toString();
+        }
+    }
 }
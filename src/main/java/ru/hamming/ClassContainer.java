@@ -1,12 +1,27 @@
 package ru.hamming;
 
+import ru.hamming.untils.ClassLayoutSizer;
+import ru.hamming.untils.Interner;
 import ru.hamming.untils.LinkedList;
+import ru.hamming.untils.MemorySizer;
+import ru.hamming.untils.ReferenceCounter;
+import ru.hamming.untils.TimingWheel;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
 
 /**
  * Контейнер для хранения элементов с фиксированным размером.
  * Использует LinkedList для внутреннего хранения данных.
+ * Элементы, добавленные со сроком жизни, удаляются по истечении срока
+ * при обращении к контейнеру либо фоновым потоком очистки,
+ * поэтому операции контейнера синхронизированы.
+ * Контейнер ведет оценку занимаемой памяти и может ограничивать ее бюджетом в байтах.
+ * Для неизменяемых элементов можно включить канонизацию через пул {@link Interner}.
  *
  * @param <T> тип элементов в контейнере
  * @version 1.0
@@ -16,24 +31,111 @@ public class ClassContainer<T> {
 
     private final Integer sizeContainer;
     private final LinkedList<T> containerValues;
+    private final ContainerChangePublisher<T> changePublisher;
+    private long changeSequence;
+    private final LongSupplier nanoClock;
+    private TimingWheel<LinkedList.Node<T>> expirationWheel;
+    private long expiredCount;
+    private final MemorySizer<? super T> sizer;
+    private final long byteBudget;
+    private long retainedBytes;
+    private Interner<T> interner;
+    private ReferenceCounter<T> sharedInstances;
+
+    /**
+     * Длительность тика колеса таймеров сроков жизни.
+     */
+    private static final long EXPIRATION_TICK_NANOS = Duration.ofMillis(1).toNanos();
+
+    /**
+     * Оценка накладных расходов на один узел списка.
+     */
+    private static final long NODE_BYTES = ClassLayoutSizer.INSTANCE.shallowSize(LinkedList.Node.class);
 
     /**
      * Конструктор контейнера.
+     * События ленты изменений доставляются в ForkJoinPool.commonPool().
      *
      * @param sizeContainer максимальный размер контейнера
      */
     public ClassContainer(Integer sizeContainer) {
+        this(sizeContainer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор контейнера с указанием исполнителя для доставки ленты изменений.
+     *
+     * @param sizeContainer максимальный размер контейнера
+     * @param changeExecutor исполнитель, в котором вызываются подписчики ленты изменений
+     */
+    public ClassContainer(Integer sizeContainer, Executor changeExecutor) {
+        this(sizeContainer, changeExecutor, System::nanoTime);
+    }
+
+    /**
+     * Конструктор контейнера с бюджетом памяти.
+     * Добавление элемента, после которого оценка занимаемой памяти превысит бюджет, отклоняется.
+     *
+     * @param sizeContainer максимальный размер контейнера
+     * @param sizer оценщик памяти элементов
+     * @param byteBudget бюджет памяти в байтах
+     * @throws IllegalArgumentException если бюджет не положителен
+     */
+    public ClassContainer(Integer sizeContainer, MemorySizer<? super T> sizer, long byteBudget) {
+        this(sizeContainer, ForkJoinPool.commonPool(), System::nanoTime, sizer, byteBudget);
+    }
+
+    /**
+     * Конструктор контейнера с указанием источника времени для сроков жизни элементов.
+     *
+     * @param sizeContainer максимальный размер контейнера
+     * @param changeExecutor исполнитель, в котором вызываются подписчики ленты изменений
+     * @param nanoClock источник текущего времени в наносекундах
+     */
+    ClassContainer(Integer sizeContainer, Executor changeExecutor, LongSupplier nanoClock) {
+        this(sizeContainer, changeExecutor, nanoClock, ClassLayoutSizer.INSTANCE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Полный конструктор контейнера.
+     *
+     * @param sizeContainer максимальный размер контейнера
+     * @param changeExecutor исполнитель, в котором вызываются подписчики ленты изменений
+     * @param nanoClock источник текущего времени в наносекундах
+     * @param sizer оценщик памяти элементов
+     * @param byteBudget бюджет памяти в байтах
+     * @throws IllegalArgumentException если бюджет не положителен
+     */
+    private ClassContainer(Integer sizeContainer, Executor changeExecutor, LongSupplier nanoClock,
+                           MemorySizer<? super T> sizer, long byteBudget) {
+        if (byteBudget <= 0) {
+            throw new IllegalArgumentException("Byte budget must be positive: " + byteBudget);
+        }
+        this.sizer = Objects.requireNonNull(sizer, "sizer");
+        this.byteBudget = byteBudget;
+        this.nanoClock = nanoClock;
         this.sizeContainer = sizeContainer;
         this.containerValues = new LinkedList<>();
+        this.changePublisher = new ContainerChangePublisher<>(
+                ContainerChangePublisher.DEFAULT_BUFFER_CAPACITY, changeExecutor);
     }
 
     /**
      * Добавляет элемент в конец контейнера.
      *
      * @param value элемент для добавления
+     * @throws IllegalStateException если добавление превысит бюджет памяти
      */
-    public void add(T value) {
+    public synchronized void add(T value) {
+        expireDue();
+        value = intern(value);
+        long bytes = reserveBytes(value);
         this.containerValues.add(value);
+        retainBytes(value, bytes);
+        long sequence = ++this.changeSequence;
+        if (this.changePublisher.hasSubscribers()) {
+            this.changePublisher.publish(ContainerChange.add(sequence, this.containerValues.size() - 1, value));
+        }
     }
 
     /**
@@ -42,9 +144,51 @@ public class ClassContainer<T> {
      * @param index индекс для вставки
      * @param value элемент для добавления
      * @throws IndexOutOfBoundsException если индекс выходит за границы
+     * @throws IllegalStateException если добавление превысит бюджет памяти
      */
-    public void add(Integer index, T value) {
+    public synchronized void add(Integer index, T value) {
+        expireDue();
+        value = intern(value);
+        long bytes = reserveBytes(value);
         this.containerValues.add(index, value);
+        retainBytes(value, bytes);
+        long sequence = ++this.changeSequence;
+        if (this.changePublisher.hasSubscribers()) {
+            this.changePublisher.publish(ContainerChange.add(sequence, index, value));
+        }
+    }
+
+    /**
+     * Добавляет элемент в конец контейнера с ограниченным сроком жизни.
+     * По истечении срока элемент удаляется за O(1) и больше не возвращается методом get.
+     * Срок округляется вниз до миллисекунды; срок, не представимый в наносекундах
+     * от текущего момента, считается бесконечным.
+     *
+     * @param value элемент для добавления
+     * @param ttl срок жизни элемента
+     * @throws NullPointerException если срок жизни равен null
+     * @throws IllegalStateException если добавление превысит бюджет памяти
+     */
+    public synchronized void add(T value, Duration ttl) {
+        long deadline = deadlineAfter(ttl);
+        expireDue();
+        value = intern(value);
+        long bytes = reserveBytes(value);
+        if (this.expirationWheel == null) {
+            this.expirationWheel = new TimingWheel<>(EXPIRATION_TICK_NANOS, this.nanoClock.getAsLong());
+        }
+        LinkedList.Node<T> node = this.containerValues.addNode(value);
+        if (!this.expirationWheel.schedule(node, deadline)) {
+            // Срок уже истек: элемент не должен быть виден ни одному вызову get
+            this.containerValues.unlink(node);
+            this.expiredCount++;
+            return;
+        }
+        retainBytes(value, bytes);
+        long sequence = ++this.changeSequence;
+        if (this.changePublisher.hasSubscribers()) {
+            this.changePublisher.publish(ContainerChange.add(sequence, this.containerValues.size() - 1, value));
+        }
     }
 
     /**
@@ -54,7 +198,8 @@ public class ClassContainer<T> {
      * @return элемент по указанному индексу
      * @throws IndexOutOfBoundsException если индекс выходит за границы
      */
-    public T get(Integer index) {
+    public synchronized T get(Integer index) {
+        expireDue();
         return this.containerValues.get(index);
     }
 
@@ -64,8 +209,46 @@ public class ClassContainer<T> {
      * @param value элемент для удаления
      * @return true если элемент был удален, false если элемент не найден
      */
-    public boolean remove(T value) {
-        return this.containerValues.remove(value);
+    public synchronized boolean remove(T value) {
+        expireDue();
+        if (!this.changePublisher.hasSubscribers()) {
+            LinkedList.Node<T> node = this.containerValues.findNode(value);
+            if (node == null) {
+                return false;
+            }
+            T removed = node.getData();
+            this.containerValues.unlink(node);
+            releaseBytes(removed);
+            this.changeSequence++;
+            return true;
+        }
+        int index = this.containerValues.indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+        remove(Integer.valueOf(index));
+        return true;
+    }
+
+    /**
+     * Возвращает индекс первого вхождения указанного элемента.
+     *
+     * @param value элемент для поиска
+     * @return индекс элемента или -1 если элемент не найден
+     */
+    public synchronized int indexOf(T value) {
+        expireDue();
+        return this.containerValues.indexOf(value);
+    }
+
+    /**
+     * Проверяет, содержит ли контейнер указанный элемент.
+     *
+     * @param value элемент для поиска
+     * @return true если элемент найден, false в противном случае
+     */
+    public boolean contains(T value) {
+        return indexOf(value) != -1;
     }
 
     /**
@@ -75,8 +258,25 @@ public class ClassContainer<T> {
      * @return удаленный элемент
      * @throws IndexOutOfBoundsException если индекс выходит за границы
      */
-    public T remove(Integer index) {
-        return this.containerValues.remove(index);
+    public synchronized T remove(Integer index) {
+        expireDue();
+        T removed = this.containerValues.remove(index);
+        releaseBytes(removed);
+        long sequence = ++this.changeSequence;
+        if (this.changePublisher.hasSubscribers()) {
+            this.changePublisher.publish(ContainerChange.remove(sequence, index, removed));
+        }
+        return removed;
+    }
+
+    /**
+     * Возвращает текущее количество элементов в контейнере.
+     *
+     * @return количество элементов
+     */
+    public synchronized int size() {
+        expireDue();
+        return this.containerValues.size();
     }
 
     /**
@@ -85,7 +285,8 @@ public class ClassContainer<T> {
      * @return строковое представление контейнера
      */
     @Override
-    public String toString() {
+    public synchronized String toString() {
+        expireDue();
         return "ClassContainer{" +
                 "sizeContainer=" + sizeContainer +
                 ", containerValues=" + containerValues +
@@ -99,7 +300,7 @@ public class ClassContainer<T> {
      * @return true если объекты равны, false в противном случае
      */
     @Override
-    public boolean equals(Object o) {
+    public synchronized boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         ClassContainer<?> that = (ClassContainer<?>) o;
         return Objects.equals(sizeContainer, that.sizeContainer) && Objects.equals(containerValues, that.containerValues);
@@ -111,7 +312,7 @@ public class ClassContainer<T> {
      * @return хэш-код контейнера
      */
     @Override
-    public int hashCode() {
+    public synchronized int hashCode() {
         return Objects.hash(sizeContainer, containerValues);
     }
 
@@ -130,7 +331,225 @@ public class ClassContainer<T> {
      *
      * @return копия списка значений
      */
-    public LinkedList<T> getContainerValues() {
+    public synchronized LinkedList<T> getContainerValues() {
+        expireDue();
         return this.containerValues.copy();
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает согласованный снимок значений вместе с номером последнего изменения.
+     * Используется репликой ленты изменений для начальной загрузки и после сигнала
+     * {@link ContainerChange.Type#RESYNC}.
+     *
+     * @return снимок контейнера
+     */
+    public synchronized ContainerSnapshot<T> getSnapshot() {
+        expireDue();
+        return new ContainerSnapshot<>(this.containerValues.copy(), this.changeSequence);
+    }
+
+    /**
+     * Удаляет все элементы с истекшим сроком жизни.
+     *
+     * @return количество удаленных элементов
+     */
+    public synchronized int expire() {
+        return expireDue();
+    }
+
+    /**
+     * Возвращает общее количество элементов, удаленных по истечении срока жизни.
+     *
+     * @return количество удаленных по сроку элементов
+     */
+    public synchronized long getExpiredCount() {
+        return this.expiredCount;
+    }
+
+    /**
+     * Возвращает оценку памяти, занимаемой узлами и элементами контейнера.
+     *
+     * @return оценка занимаемой памяти в байтах
+     */
+    public synchronized long getRetainedBytes() {
+        expireDue();
+        return this.retainedBytes;
+    }
+
+    /**
+     * Возвращает бюджет памяти контейнера.
+     *
+     * @return бюджет в байтах; Long.MAX_VALUE если бюджет не ограничен
+     */
+    public long getByteBudget() {
+        return this.byteBudget;
+    }
+
+    /**
+     * Включает канонизацию элементов через пул.
+     * Добавляемые элементы заменяются каноническими экземплярами из пула, так что равные
+     * значения хранятся одним экземпляром. Оценка занимаемой памяти учитывает такой
+     * экземпляр один раз, сколько бы узлов на него ни ссылалось.
+     * Ранее добавленные элементы не канонизируются. Подходит только для неизменяемых элементов.
+     *
+     * @param interner пул канонических экземпляров; null отключает канонизацию
+     */
+    public synchronized void setInterner(Interner<T> interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Запускает фоновую очистку элементов с истекшим сроком жизни в виртуальном потоке.
+     * Очистка продолжается до прерывания возвращенного потока.
+     *
+     * @param interval интервал между проходами очистки
+     * @return поток очистки
+     */
+    public Thread startExpirationSweeper(Duration interval) {
+        return Thread.ofVirtual().name("class-container-sweeper").start(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(interval);
+                    expire();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Возвращает ленту изменений контейнера.
+     * Подписчик получает пачки событий добавления и удаления с индексами и значениями,
+     * что позволяет реплике применять только изменения вместо копирования всего контейнера.
+     * Реплика загружает {@link #getSnapshot()} и применяет события с номером больше номера снимка.
+     *
+     * @return издатель ленты изменений
+     */
+    public Flow.Publisher<LinkedList<ContainerChange<T>>> getChangePublisher() {
+        return this.changePublisher;
+    }
+
+    /**
+     * Вычисляет момент истечения срока жизни, насыщая его вместо переполнения.
+     *
+     * @param ttl срок жизни элемента
+     * @return момент истечения в наносекундах часов контейнера
+     */
+    private long deadlineAfter(Duration ttl) {
+        long now = this.nanoClock.getAsLong();
+        try {
+            return Math.addExact(now, ttl.toNanos());
+        } catch (ArithmeticException e) {
+            return ttl.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Продвигает колесо таймеров до текущего момента и удаляет просроченные элементы.
+     * Без подписчиков каждый узел удаляется за O(1). Подписчикам нужны индексы удаленных
+     * элементов, поэтому все просроченные за этот вызов узлы удаляются одним проходом по списку.
+     * Вызывается под блокировкой контейнера.
+     *
+     * @return количество удаленных элементов
+     */
+    private int expireDue() {
+        if (this.expirationWheel == null || this.expirationWheel.isEmpty()) {
+            return 0;
+        }
+        long before = this.expiredCount;
+        if (!this.changePublisher.hasSubscribers()) {
+            this.expirationWheel.advance(this.nanoClock.getAsLong(), this::expireNode);
+        } else {
+            LinkedList<LinkedList.Node<T>> due = new LinkedList<>();
+            this.expirationWheel.advance(this.nanoClock.getAsLong(), due::add);
+            this.containerValues.unlinkAll(due, this::expiredAt);
+        }
+        return (int) (this.expiredCount - before);
+    }
+
+    /**
+     * Удаляет узел просроченного элемента, если он еще находится в контейнере.
+     *
+     * @param node узел просроченного элемента
+     */
+    private void expireNode(LinkedList.Node<T> node) {
+        T value = node.getData();
+        if (this.containerValues.unlink(node)) {
+            this.expiredCount++;
+            releaseBytes(value);
+            this.changeSequence++;
+        }
+    }
+
+    /**
+     * Учитывает удаленный по сроку элемент и публикует событие его удаления.
+     *
+     * @param value удаленный элемент
+     * @param index индекс, по которому находился элемент
+     */
+    private void expiredAt(T value, int index) {
+        this.expiredCount++;
+        releaseBytes(value);
+        this.changePublisher.publish(ContainerChange.remove(++this.changeSequence, index, value));
+    }
+
+    /**
+     * Оценивает память для нового элемента и проверяет бюджет.
+     *
+     * @param value добавляемый элемент
+     * @return оценка памяти узла и элемента в байтах
+     * @throws IllegalStateException если добавление превысит бюджет памяти
+     */
+    private long reserveBytes(T value) {
+        boolean shared = this.sharedInstances != null && value != null && this.sharedInstances.count(value) > 0;
+        long bytes = NODE_BYTES + (shared ? 0 : this.sizer.sizeOf(value));
+        if (bytes > this.byteBudget - this.retainedBytes) {
+            throw new IllegalStateException("Byte budget exceeded: " + (this.retainedBytes + bytes)
+                    + " > " + this.byteBudget);
+        }
+        return bytes;
+    }
+
+    /**
+     * Учитывает память добавленного элемента. Начиная с первого включения канонизации
+     * считает ссылки на каждый добавленный экземпляр, чтобы общий экземпляр учитывался
+     * один раз, даже если канонизацию затем отключили.
+     *
+     * @param value добавленный элемент
+     * @param bytes оценка, полученная из {@link #reserveBytes(Object)}
+     */
+    private void retainBytes(T value, long bytes) {
+        this.retainedBytes += bytes;
+        if (this.sharedInstances == null && this.interner != null) {
+            this.sharedInstances = new ReferenceCounter<>();
+        }
+        if (this.sharedInstances != null && value != null) {
+            this.sharedInstances.increment(value);
+        }
+    }
+
+    /**
+     * Уменьшает оценку памяти на размер удаленного элемента и его узла.
+     * Размер общего экземпляра вычитается только вместе с последней ссылкой на него.
+     *
+     * @param value удаленный элемент
+     */
+    private void releaseBytes(T value) {
+        long elementBytes = this.sizer.sizeOf(value);
+        if (this.sharedInstances != null && value != null && this.sharedInstances.decrement(value) > 0) {
+            elementBytes = 0;
+        }
+        this.retainedBytes -= NODE_BYTES + elementBytes;
+    }
+
+    /**
+     * Возвращает канонический экземпляр добавляемого элемента, если канонизация включена.
+     *
+     * @param value добавляемый элемент
+     * @return канонический экземпляр или сам элемент
+     */
+    private T intern(T value) {
+        return this.interner == null ? value : this.interner.intern(value);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.hamming;
+
+import java.util.Objects;
+
+/**
+ * Событие изменения контейнера: добавление или удаление элемента,
+ * либо сигнал о необходимости полной пересинхронизации.
+ * Каждое изменение контейнера получает следующий номер последовательности,
+ * по которому реплика сопоставляет события со снимком {@link ContainerSnapshot}.
+ *
+ * @param <T> тип элементов в контейнере
+ * @version 1.0
+ * @author Hamming
+ */
+public final class ContainerChange<T> {
+
+    /**
+     * Тип события изменения.
+     */
+    public enum Type {
+        /** Элемент добавлен по индексу. */
+        ADD,
+        /** Элемент удален по индексу. */
+        REMOVE,
+        /** События были потеряны, подписчику нужно перечитать контейнер целиком. */
+        RESYNC
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final int index;
+    private final T value;
+
+    private ContainerChange(long sequence, Type type, int index, T value) {
+        this.sequence = sequence;
+        this.type = type;
+        this.index = index;
+        this.value = value;
+    }
+
+    /**
+     * Создает событие добавления элемента.
+     *
+     * @param sequence номер изменения
+     * @param index индекс, по которому был добавлен элемент
+     * @param value добавленный элемент
+     * @param <T> тип элемента
+     * @return событие добавления
+     */
+    public static <T> ContainerChange<T> add(long sequence, int index, T value) {
+        return new ContainerChange<>(sequence, Type.ADD, index, value);
+    }
+
+    /**
+     * Создает событие удаления элемента.
+     *
+     * @param sequence номер изменения
+     * @param index индекс, по которому находился удаленный элемент
+     * @param value удаленный элемент
+     * @param <T> тип элемента
+     * @return событие удаления
+     */
+    public static <T> ContainerChange<T> remove(long sequence, int index, T value) {
+        return new ContainerChange<>(sequence, Type.REMOVE, index, value);
+    }
+
+    /**
+     * Создает сигнал пересинхронизации. Индекс равен -1, значение отсутствует.
+     *
+     * @param sequence номер последнего потерянного изменения
+     * @param <T> тип элемента
+     * @return сигнал пересинхронизации
+     */
+    public static <T> ContainerChange<T> resync(long sequence) {
+        return new ContainerChange<>(sequence, Type.RESYNC, -1, null);
+    }
+
+    /**
+     * Возвращает номер изменения. Номера возрастают на единицу с каждым изменением контейнера.
+     * Для сигнала пересинхронизации - номер последнего потерянного изменения.
+     *
+     * @return номер изменения
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Возвращает тип события.
+     *
+     * @return тип события
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Возвращает индекс элемента, к которому относится событие.
+     *
+     * @return индекс элемента или -1 для сигнала пересинхронизации
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Возвращает элемент, к которому относится событие.
+     *
+     * @return элемент или null для сигнала пересинхронизации
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Возвращает строковое представление события.
+     *
+     * @return строковое представление события
+     */
+    @Override
+    public String toString() {
+        return "ContainerChange{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", index=" + index +
+                ", value=" + value +
+                '}';
+    }
+
+    /**
+     * Сравнивает это событие с другим объектом.
+     *
+     * @param o объект для сравнения
+     * @return true если объекты равны, false в противном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ContainerChange<?> that = (ContainerChange<?>) o;
+        return sequence == that.sequence && index == that.index && type == that.type
+                && Objects.equals(value, that.value);
+    }
+
+    /**
+     * Возвращает хэш-код события.
+     *
+     * @return хэш-код события
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequence, type, index, value);
+    }
+}
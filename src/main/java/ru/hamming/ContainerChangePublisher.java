@@ -0,0 +1,260 @@
+package ru.hamming;
+
+import ru.hamming.untils.LinkedList;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Издатель ленты изменений контейнера.
+ * Каждый элемент ленты - пачка событий {@link ContainerChange}, накопленных с момента
+ * предыдущей доставки: пока подписчик не успевает, события собираются в одну пачку.
+ * Спрос подписчика считается в пачках.
+ * <p>
+ * Производитель никогда не ждет подписчика: доставка выполняется в переданном Executor,
+ * а при переполнении буфера подписчика накопленные события отбрасываются
+ * и заменяются одним сигналом {@link ContainerChange.Type#RESYNC}.
+ * События, произошедшие до доставки этого сигнала, также отбрасываются,
+ * так как подписчик перечитает контейнер целиком. События после сигнала доставляются,
+ * и подписчик пропускает те из них, номер которых не больше номера прочитанного снимка.
+ * Пока у подписчика нет спроса, новые события только буферизуются, не запуская доставку.
+ *
+ * @param <T> тип элементов в контейнере
+ * @version 1.0
+ * @author Hamming
+ */
+public class ContainerChangePublisher<T> implements Flow.Publisher<LinkedList<ContainerChange<T>>> {
+
+    /**
+     * Емкость буфера подписчика по умолчанию.
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    private final int bufferCapacity;
+    private final Executor executor;
+    private volatile ChangeSubscription<T>[] subscriptions;
+
+    /**
+     * Конструктор издателя.
+     *
+     * @param bufferCapacity максимальное количество недоставленных событий на подписчика
+     * @param executor исполнитель, в котором вызываются методы подписчиков
+     * @throws IllegalArgumentException если емкость буфера меньше 1
+     * @throws NullPointerException если исполнитель равен null
+     */
+    public ContainerChangePublisher(int bufferCapacity, Executor executor) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + bufferCapacity);
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.subscriptions = newArray(0);
+    }
+
+    /**
+     * Подписывает получателя на ленту изменений.
+     *
+     * @param subscriber подписчик
+     * @throws NullPointerException если подписчик равен null
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super LinkedList<ContainerChange<T>>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        ChangeSubscription<T> subscription = new ChangeSubscription<>(this, subscriber);
+        synchronized (this) {
+            ChangeSubscription<T>[] current = subscriptions;
+            ChangeSubscription<T>[] updated = newArray(current.length + 1);
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = subscription;
+            subscriptions = updated;
+        }
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Проверяет, есть ли активные подписчики.
+     *
+     * @return true если есть хотя бы один подписчик
+     */
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    /**
+     * Публикует событие всем подписчикам. Не блокируется в ожидании подписчиков.
+     *
+     * @param change событие изменения
+     */
+    void publish(ContainerChange<T> change) {
+        for (ChangeSubscription<T> subscription : subscriptions) {
+            subscription.offer(change);
+        }
+    }
+
+    /**
+     * Удаляет подписку из списка активных.
+     *
+     * @param subscription подписка для удаления
+     */
+    private synchronized void unsubscribe(ChangeSubscription<T> subscription) {
+        ChangeSubscription<T>[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                ChangeSubscription<T>[] updated = newArray(current.length - 1);
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                subscriptions = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Создает массив подписок указанной длины.
+     *
+     * @param length длина массива
+     * @param <T> тип элементов в контейнере
+     * @return новый массив
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ChangeSubscription<T>[] newArray(int length) {
+        return (ChangeSubscription<T>[]) new ChangeSubscription<?>[length];
+    }
+
+    /**
+     * Подписка одного получателя: буфер недоставленных событий, спрос и цикл доставки.
+     * Цикл доставки выполняется не более чем в одном потоке одновременно.
+     *
+     * @param <T> тип элементов в контейнере
+     */
+    private static final class ChangeSubscription<T> implements Flow.Subscription {
+        private final ContainerChangePublisher<T> publisher;
+        private final Flow.Subscriber<? super LinkedList<ContainerChange<T>>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private LinkedList<ContainerChange<T>> buffer = new LinkedList<>();
+        private boolean resync;
+        private long resyncSequence;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        ChangeSubscription(ContainerChangePublisher<T> publisher,
+                           Flow.Subscriber<? super LinkedList<ContainerChange<T>>> subscriber) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Добавляет событие в буфер; при переполнении заменяет буфер сигналом пересинхронизации.
+         * Доставка запускается только при наличии спроса: иначе ее запустит {@link #request(long)}.
+         *
+         * @param change событие изменения
+         */
+        void offer(ContainerChange<T> change) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (resync) {
+                    resyncSequence = change.getSequence();
+                    return;
+                }
+                buffer.add(change);
+                if (buffer.size() > publisher.bufferCapacity) {
+                    buffer = new LinkedList<>();
+                    resync = true;
+                    resyncSequence = change.getSequence();
+                }
+            }
+            if (demand.get() > 0) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = demand.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            publisher.unsubscribe(this);
+            synchronized (this) {
+                buffer = new LinkedList<>();
+                resync = false;
+            }
+        }
+
+        /**
+         * Запускает цикл доставки в исполнителе, если он еще не запущен.
+         */
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                publisher.executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Доставляет накопленные пачки, пока есть спрос и события.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                while (!cancelled) {
+                    Throwable failure = error;
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                        break;
+                    }
+                    if (demand.get() == 0) {
+                        break;
+                    }
+                    LinkedList<ContainerChange<T>> batch = takeBatch();
+                    if (batch == null) {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext(batch);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Забирает все накопленные события одной пачкой.
+         *
+         * @return пачка событий или null если событий нет
+         */
+        private synchronized LinkedList<ContainerChange<T>> takeBatch() {
+            if (resync) {
+                resync = false;
+                LinkedList<ContainerChange<T>> batch = new LinkedList<>();
+                batch.add(ContainerChange.resync(resyncSequence));
+                return batch;
+            }
+            if (buffer.isEmpty()) {
+                return null;
+            }
+            LinkedList<ContainerChange<T>> batch = buffer;
+            buffer = new LinkedList<>();
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.hamming;
+
+import ru.hamming.untils.LinkedList;
+
+/**
+ * Согласованный снимок содержимого контейнера вместе с номером последнего
+ * вошедшего в него изменения.
+ * Реплика, получившая сигнал {@link ContainerChange.Type#RESYNC}, читает снимок
+ * и затем применяет только события с номером больше {@link #getSequence()}.
+ *
+ * @param <T> тип элементов в контейнере
+ * @version 1.0
+ * @author Hamming
+ */
+public final class ContainerSnapshot<T> {
+
+    private final LinkedList<T> values;
+    private final long sequence;
+
+    /**
+     * Конструктор снимка.
+     *
+     * @param values копия значений контейнера
+     * @param sequence номер последнего изменения, вошедшего в снимок
+     */
+    ContainerSnapshot(LinkedList<T> values, long sequence) {
+        this.values = values;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Возвращает копию значений контейнера на момент снимка.
+     *
+     * @return список значений
+     */
+    public LinkedList<T> getValues() {
+        return values;
+    }
+
+    /**
+     * Возвращает номер последнего изменения, вошедшего в снимок.
+     *
+     * @return номер изменения; 0 если контейнер еще не изменялся
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Возвращает строковое представление снимка.
+     *
+     * @return строковое представление снимка
+     */
+    @Override
+    public String toString() {
+        return "ContainerSnapshot{" +
+                "sequence=" + sequence +
+                ", values=" + values +
+                '}';
+    }
+}
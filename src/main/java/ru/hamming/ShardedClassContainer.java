@@ -0,0 +1,519 @@
+package ru.hamming;
+
+import ru.hamming.untils.LinkedList;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Секционированный контейнер, состоящий из нескольких независимых LinkedList (шардов).
+ * Элементы распределяются по шардам по кругу либо по ключевой функции.
+ * Добавление в конец блокирует на запись только один шард, а поиск и агрегация
+ * выполняются параллельно по всем шардам в ForkJoinPool.
+ * <p>
+ * Каждый шард защищен блокировкой чтения-записи: запросы (get, size, indexOf, aggregate)
+ * берут блокировки на чтение и не мешают друг другу, а изменяющие операции - на запись.
+ * Свертка блокирует каждый шард только на время его обработки, поэтому не останавливает
+ * добавление во все шарды сразу.
+ * <p>
+ * Глобальный индекс элемента определяется порядком шардов: сначала идут все элементы
+ * шарда 0, затем шарда 1 и т.д.
+ *
+ * @param <T> тип элементов в контейнере
+ * @version 1.0
+ * @author Hamming
+ */
+public class ShardedClassContainer<T> {
+
+    private final Integer sizeContainer;
+    private final LinkedList<T>[] shards;
+    private final ReentrantReadWriteLock[] locks;
+    private final Function<? super T, ?> keyFunction;
+    private final AtomicInteger nextShard;
+    private final ForkJoinPool pool;
+
+    /**
+     * Конструктор контейнера с распределением элементов по кругу
+     * и общим пулом ForkJoinPool.commonPool().
+     *
+     * @param sizeContainer максимальный размер контейнера
+     * @param shardCount количество шардов
+     * @throws IllegalArgumentException если количество шардов меньше 1
+     */
+    public ShardedClassContainer(Integer sizeContainer, int shardCount) {
+        this(sizeContainer, shardCount, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор контейнера с распределением элементов по ключевой функции.
+     *
+     * @param sizeContainer максимальный размер контейнера
+     * @param shardCount количество шардов
+     * @param keyFunction функция ключа; шард выбирается по хэш-коду ключа,
+     *                    null означает распределение по кругу
+     * @param pool пул для параллельного выполнения запросов
+     * @throws IllegalArgumentException если количество шардов меньше 1
+     * @throws NullPointerException если пул равен null
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedClassContainer(Integer sizeContainer, int shardCount,
+                                 Function<? super T, ?> keyFunction, ForkJoinPool pool) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.sizeContainer = sizeContainer;
+        this.shards = (LinkedList<T>[]) new LinkedList[shardCount];
+        this.locks = new ReentrantReadWriteLock[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new LinkedList<>();
+            this.locks[i] = new ReentrantReadWriteLock();
+        }
+        this.keyFunction = keyFunction;
+        this.nextShard = new AtomicInteger();
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * Добавляет элемент в конец выбранного шарда.
+     * Блокирует только этот шард, поэтому потоки, попавшие в разные шарды, не конкурируют.
+     *
+     * @param value элемент для добавления
+     */
+    public void add(T value) {
+        int shard = shardFor(value);
+        locks[shard].writeLock().lock();
+        try {
+            shards[shard].add(value);
+        } finally {
+            locks[shard].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет элемент по указанному глобальному индексу.
+     * Недоступно при распределении по ключевой функции: позиция определила бы шард
+     * в обход ключа.
+     *
+     * @param index индекс для вставки (от 0 до size)
+     * @param value элемент для добавления
+     * @throws IndexOutOfBoundsException если индекс выходит за границы
+     * @throws IllegalStateException если задана ключевая функция
+     */
+    public void add(Integer index, T value) {
+        if (keyFunction != null) {
+            throw new IllegalStateException("Positional insert is not supported with a key function");
+        }
+        writeLockAll();
+        try {
+            int size = totalSize();
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int shard = index == size ? shards.length - 1 : shardOf(index);
+            shards[shard].add(index - offsetOf(shard), value);
+        } finally {
+            writeUnlockAll();
+        }
+    }
+
+    /**
+     * Возвращает элемент по указанному глобальному индексу.
+     *
+     * @param index индекс элемента
+     * @return элемент по указанному индексу
+     * @throws IndexOutOfBoundsException если индекс выходит за границы
+     */
+    public T get(Integer index) {
+        readLockAll();
+        try {
+            checkIndex(index);
+            int shard = shardOf(index);
+            return shards[shard].get(index - offsetOf(shard));
+        } finally {
+            readUnlockAll();
+        }
+    }
+
+    /**
+     * Удаляет элемент по указанному глобальному индексу.
+     *
+     * @param index индекс элемента для удаления
+     * @return удаленный элемент
+     * @throws IndexOutOfBoundsException если индекс выходит за границы
+     */
+    public T remove(Integer index) {
+        writeLockAll();
+        try {
+            checkIndex(index);
+            int shard = shardOf(index);
+            return shards[shard].remove(index - offsetOf(shard));
+        } finally {
+            writeUnlockAll();
+        }
+    }
+
+    /**
+     * Удаляет первое вхождение указанного элемента.
+     * Поиск вхождения выполняется параллельно по всем шардам.
+     *
+     * @param value элемент для удаления
+     * @return true если элемент был удален, false если элемент не найден
+     */
+    public boolean remove(T value) {
+        writeLockAll();
+        try {
+            int index = pool.invoke(new IndexOfTask(value, prefixSums(), 0, shards.length));
+            if (index == -1) {
+                return false;
+            }
+            int shard = shardOf(index);
+            shards[shard].remove(index - offsetOf(shard));
+            return true;
+        } finally {
+            writeUnlockAll();
+        }
+    }
+
+    /**
+     * Возвращает глобальный индекс первого вхождения указанного элемента.
+     * Шарды просматриваются параллельно.
+     *
+     * @param value элемент для поиска
+     * @return индекс элемента или -1 если элемент не найден
+     */
+    public int indexOf(T value) {
+        readLockAll();
+        try {
+            return pool.invoke(new IndexOfTask(value, prefixSums(), 0, shards.length));
+        } finally {
+            readUnlockAll();
+        }
+    }
+
+    /**
+     * Проверяет, содержит ли контейнер указанный элемент.
+     * Шарды просматриваются параллельно.
+     *
+     * @param value элемент для поиска
+     * @return true если элемент найден, false в противном случае
+     */
+    public boolean contains(T value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Возвращает элементы, удовлетворяющие условию, в порядке глобальных индексов.
+     * Шарды фильтруются параллельно.
+     *
+     * @param predicate условие отбора
+     * @return новый список с отобранными элементами
+     */
+    public LinkedList<T> filter(Predicate<? super T> predicate) {
+        return aggregate(LinkedList::new,
+                (list, value) -> {
+                    if (predicate.test(value)) {
+                        list.add(value);
+                    }
+                    return list;
+                },
+                (left, right) -> {
+                    right.forEach(left::add);
+                    return left;
+                });
+    }
+
+    /**
+     * Выполняет параллельную свертку элементов контейнера.
+     * Каждый шард сворачивается независимо от начального значения,
+     * после чего частичные результаты объединяются в порядке шардов.
+     * Шард блокируется на чтение только на время своей свертки, поэтому результат
+     * согласован внутри каждого шарда, но может учитывать не все элементы,
+     * добавленные в другие шарды во время свертки.
+     *
+     * @param identity фабрика начального значения для каждого шарда
+     * @param accumulator функция добавления элемента к частичному результату
+     * @param combiner функция объединения двух частичных результатов
+     * @param <R> тип результата
+     * @return результат свертки
+     */
+    public <R> R aggregate(Supplier<R> identity,
+                           BiFunction<R, ? super T, R> accumulator,
+                           BinaryOperator<R> combiner) {
+        return pool.invoke(new AggregateTask<>(identity, accumulator, combiner, 0, shards.length));
+    }
+
+    /**
+     * Возвращает общее количество элементов во всех шардах.
+     *
+     * @return размер контейнера
+     */
+    public int size() {
+        readLockAll();
+        try {
+            return totalSize();
+        } finally {
+            readUnlockAll();
+        }
+    }
+
+    /**
+     * Возвращает количество шардов.
+     *
+     * @return количество шардов
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Возвращает максимальный размер контейнера.
+     *
+     * @return размер контейнера
+     */
+    public Integer getSizeContainer() {
+        return sizeContainer;
+    }
+
+    /**
+     * Возвращает копию всех значений в порядке глобальных индексов.
+     * Изменения в возвращенном списке не влияют на оригинальный контейнер.
+     *
+     * @return копия списка значений
+     */
+    public LinkedList<T> getContainerValues() {
+        readLockAll();
+        try {
+            LinkedList<T> copy = new LinkedList<>();
+            for (LinkedList<T> shard : shards) {
+                shard.forEach(copy::add);
+            }
+            return copy;
+        } finally {
+            readUnlockAll();
+        }
+    }
+
+    /**
+     * Возвращает строковое представление контейнера.
+     *
+     * @return строковое представление контейнера
+     */
+    @Override
+    public String toString() {
+        return "ShardedClassContainer{" +
+                "sizeContainer=" + sizeContainer +
+                ", shardCount=" + shards.length +
+                ", containerValues=" + getContainerValues() +
+                '}';
+    }
+
+    /**
+     * Выбирает шард для нового элемента.
+     *
+     * @param value добавляемый элемент
+     * @return номер шарда
+     */
+    private int shardFor(T value) {
+        if (keyFunction == null) {
+            return Math.floorMod(nextShard.getAndIncrement(), shards.length);
+        }
+        return Math.floorMod(Objects.hashCode(keyFunction.apply(value)), shards.length);
+    }
+
+    /**
+     * Захватывает блокировки на чтение всех шардов в фиксированном порядке.
+     */
+    private void readLockAll() {
+        for (ReentrantReadWriteLock lock : locks) {
+            lock.readLock().lock();
+        }
+    }
+
+    /**
+     * Освобождает блокировки на чтение всех шардов в обратном порядке.
+     */
+    private void readUnlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].readLock().unlock();
+        }
+    }
+
+    /**
+     * Захватывает блокировки на запись всех шардов в фиксированном порядке, исключая взаимоблокировки.
+     */
+    private void writeLockAll() {
+        for (ReentrantReadWriteLock lock : locks) {
+            lock.writeLock().lock();
+        }
+    }
+
+    /**
+     * Освобождает блокировки на запись всех шардов в обратном порядке.
+     */
+    private void writeUnlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Суммирует размеры шардов. Вызывается только под блокировкой всех шардов.
+     *
+     * @return общее количество элементов
+     */
+    private int totalSize() {
+        int size = 0;
+        for (LinkedList<T> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Вычисляет префиксные суммы размеров шардов: prefix[i] - глобальный индекс
+     * первого элемента шарда i, prefix[shards.length] - общий размер.
+     *
+     * @return массив префиксных сумм
+     */
+    private int[] prefixSums() {
+        int[] prefix = new int[shards.length + 1];
+        for (int i = 0; i < shards.length; i++) {
+            prefix[i + 1] = prefix[i] + shards[i].size();
+        }
+        return prefix;
+    }
+
+    /**
+     * Проверяет, что индекс указывает на существующий элемент.
+     *
+     * @param index проверяемый индекс
+     * @throws IndexOutOfBoundsException если индекс выходит за границы
+     */
+    private void checkIndex(int index) {
+        int size = totalSize();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Находит шард, содержащий элемент с указанным глобальным индексом.
+     * Шардов немного, поэтому линейный проход по их размерам дешевле
+     * выделения массива префиксных сумм.
+     *
+     * @param index глобальный индекс (от 0 до size - 1)
+     * @return номер шарда
+     */
+    private int shardOf(int index) {
+        int shard = 0;
+        int remaining = index;
+        while (remaining >= shards[shard].size()) {
+            remaining -= shards[shard].size();
+            shard++;
+        }
+        return shard;
+    }
+
+    /**
+     * Возвращает глобальный индекс первого элемента шарда.
+     *
+     * @param shard номер шарда
+     * @return сумма размеров предшествующих шардов
+     */
+    private int offsetOf(int shard) {
+        int offset = 0;
+        for (int i = 0; i < shard; i++) {
+            offset += shards[i].size();
+        }
+        return offset;
+    }
+
+    /**
+     * Задача поиска первого вхождения элемента в диапазоне шардов.
+     * Вызывающий поток удерживает блокировки всех шардов на время выполнения.
+     */
+    private final class IndexOfTask extends RecursiveTask<Integer> {
+        private final T value;
+        private final int[] prefix;
+        private final int from;
+        private final int to;
+
+        IndexOfTask(T value, int[] prefix, int from, int to) {
+            this.value = value;
+            this.prefix = prefix;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from == 1) {
+                int local = shards[from].indexOf(value);
+                return local == -1 ? -1 : prefix[from] + local;
+            }
+            int mid = (from + to) >>> 1;
+            IndexOfTask left = new IndexOfTask(value, prefix, from, mid);
+            IndexOfTask right = new IndexOfTask(value, prefix, mid, to);
+            right.fork();
+            int leftResult = left.compute();
+            int rightResult = right.join();
+            return leftResult != -1 ? leftResult : rightResult;
+        }
+    }
+
+    /**
+     * Задача свертки элементов в диапазоне шардов.
+     * Каждый шард блокируется на чтение на время своей свертки.
+     *
+     * @param <R> тип результата
+     */
+    private final class AggregateTask<R> extends RecursiveTask<R> {
+        private final Supplier<R> identity;
+        private final BiFunction<R, ? super T, R> accumulator;
+        private final BinaryOperator<R> combiner;
+        private final int from;
+        private final int to;
+
+        AggregateTask(Supplier<R> identity, BiFunction<R, ? super T, R> accumulator,
+                      BinaryOperator<R> combiner, int from, int to) {
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                Object[] result = {identity.get()};
+                locks[from].readLock().lock();
+                try {
+                    shards[from].forEach(value -> result[0] = accumulator.apply(castResult(result[0]), value));
+                } finally {
+                    locks[from].readLock().unlock();
+                }
+                return castResult(result[0]);
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask<R> left = new AggregateTask<>(identity, accumulator, combiner, from, mid);
+            AggregateTask<R> right = new AggregateTask<>(identity, accumulator, combiner, mid, to);
+            right.fork();
+            R leftResult = left.compute();
+            return combiner.apply(leftResult, right.join());
+        }
+
+        @SuppressWarnings("unchecked")
+        private R castResult(Object result) {
+            return (R) result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.hamming.untils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Оценщик памяти по раскладке класса.
+ * Размер экземпляра вычисляется один раз для каждого класса по его полям
+ * и кэшируется. Предполагается 64-битная JVM со сжатыми ссылками:
+ * заголовок объекта 12 байт, заголовок массива 16 байт, ссылка 4 байта, выравнивание 8 байт.
+ * <p>
+ * Оценка поверхностная: вложенные объекты не учитываются, за исключением
+ * содержимого строк. Для сложных элементов следует передать собственный {@link MemorySizer}.
+ *
+ * @version 1.0
+ * @author Hamming
+ */
+public final class ClassLayoutSizer implements MemorySizer<Object> {
+
+    /**
+     * Общий экземпляр оценщика.
+     */
+    public static final ClassLayoutSizer INSTANCE = new ClassLayoutSizer();
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ALIGNMENT_BYTES = 8;
+
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long size = OBJECT_HEADER_BYTES;
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += fieldBytes(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        }
+    };
+
+    private ClassLayoutSizer() {
+    }
+
+    /**
+     * Возвращает оценку объема памяти элемента в байтах.
+     *
+     * @param value элемент, может быть null
+     * @return оценка объема в байтах; 0 для null
+     */
+    @Override
+    public long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return arraySize(type.getComponentType(), Array.getLength(value));
+        }
+        long size = shallowSize(type);
+        if (value instanceof String string) {
+            // Компактная строка хранит по байту на символ, только если все символы из Latin-1,
+            // иначе - по два байта (UTF-16)
+            size += arraySize(isLatin1(string) ? byte.class : char.class, string.length());
+        }
+        return size;
+    }
+
+    /**
+     * Проверяет, помещаются ли все символы строки в Latin-1.
+     *
+     * @param string строка
+     * @return true если строка может храниться по байту на символ
+     */
+    private static boolean isLatin1(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает кэшированный размер экземпляра класса без учета вложенных объектов.
+     *
+     * @param type класс (не массив)
+     * @return размер экземпляра в байтах
+     */
+    public long shallowSize(Class<?> type) {
+        return SHALLOW_SIZES.get(type);
+    }
+
+    /**
+     * Вычисляет размер массива.
+     *
+     * @param componentType тип элементов массива
+     * @param length длина массива
+     * @return размер массива в байтах
+     */
+    private static long arraySize(Class<?> componentType, int length) {
+        return align(ARRAY_HEADER_BYTES + (long) length * fieldBytes(componentType));
+    }
+
+    /**
+     * Возвращает размер поля указанного типа.
+     *
+     * @param type тип поля
+     * @return размер поля в байтах
+     */
+    private static int fieldBytes(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    /**
+     * Выравнивает размер до границы объекта.
+     *
+     * @param size размер в байтах
+     * @return выровненный размер
+     */
+    private static long align(long size) {
+        return (size + ALIGNMENT_BYTES - 1) / ALIGNMENT_BYTES * ALIGNMENT_BYTES;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.hamming.untils;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Пул канонических экземпляров неизменяемых значений.
+ * Равные значения, прошедшие через {@link #intern(Object)}, заменяются одним экземпляром,
+ * что экономит память и позволяет сравнивать элементы по ссылке до вызова equals.
+ * <p>
+ * Пул ограничен по размеру и хранит значения по слабым ссылкам, поэтому не удерживает
+ * их от сборки мусора. Таблица разбита на группы по {@value #WAYS} слота; при заполнении
+ * группы вытесняется случайный слот. Операции не блокируются и безопасны для нескольких потоков.
+ * Пул - это кэш: изредка у одного значения может оказаться несколько канонических экземпляров.
+ * Значения должны быть неизменяемыми.
+ *
+ * @param <T> тип значений
+ * @version 1.0
+ * @author Hamming
+ */
+public class Interner<T> {
+
+    private static final int WAYS = 4;
+
+    private final AtomicReferenceArray<WeakReference<T>> slots;
+    private final int groupMask;
+
+    /**
+     * Конструктор пула.
+     *
+     * @param capacity максимальное количество значений; округляется вверх до степени двойки
+     * @throws IllegalArgumentException если емкость меньше 1
+     */
+    public Interner(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Math.max(WAYS, Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.groupMask = size / WAYS - 1;
+    }
+
+    /**
+     * Возвращает канонический экземпляр значения, добавляя значение в пул при его отсутствии.
+     *
+     * @param value значение, может быть null
+     * @return канонический экземпляр, равный value, либо сам value
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        int base = groupOf(value);
+        int free = -1;
+        for (int i = base; i < base + WAYS; i++) {
+            WeakReference<T> reference = slots.get(i);
+            T candidate = reference == null ? null : reference.get();
+            if (candidate == null) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (candidate == value || candidate.equals(value)) {
+                return candidate;
+            }
+        }
+        WeakReference<T> fresh = new WeakReference<>(value);
+        if (free >= 0) {
+            WeakReference<T> expected = slots.get(free);
+            if (expected == null || expected.get() == null) {
+                // Проигрыш гонки не страшен: значение просто не попадет в пул в этот раз
+                slots.compareAndSet(free, expected, fresh);
+            }
+        } else {
+            slots.set(base + ThreadLocalRandom.current().nextInt(WAYS), fresh);
+        }
+        return value;
+    }
+
+    /**
+     * Возвращает максимальное количество значений в пуле.
+     *
+     * @return емкость пула
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Вычисляет первый слот группы для значения.
+     *
+     * @param value значение
+     * @return индекс первого слота группы
+     */
+    private int groupOf(T value) {
+        int hash = value.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & groupMask) * WAYS;
+    }
+}
@@ -1,5 +1,9 @@
 package ru.hamming.untils;
 
+import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
 /**
  * Двусвязный список с поддержкой generics.
  * Реализует основные операции со списком: добавление, удаление, поиск и другие.
@@ -12,13 +16,30 @@ public class LinkedList<T> {
     private Node<T> head;
     private Node<T> tail;
     private int size;
+    private LazyRange<T> lazyRange;
+    private boolean holdsPending;
+    private LazyDependent<T> lazyDependents;
+
+    /**
+     * Количество узлов, пройденных при поиске по индексу. Позволяет тестам проверять
+     * асимптотику позиционного доступа без измерения времени.
+     */
+    long traversedNodes;
+
+    /**
+     * Временная метка в поле prev узлов, удаляемых через {@link #unlinkAll(LinkedList, ObjIntConsumer)}.
+     */
+    private static final Node<?> UNLINK_MARK = new Node<>((Object) null);
 
     /**
-     * Внутренний класс для представления узла списка.
+     * Узел списка. Снаружи пакета используется как непрозрачный дескриптор элемента,
+     * позволяющий удалить элемент за O(1) через {@link #unlink(Node)}.
+     * При удалении из списка данные узла обнуляются, чтобы удерживаемый снаружи
+     * дескриптор не удерживал элемент от сборки мусора.
      *
      * @param <T> тип данных узла
      */
-    private static class Node<T> {
+    public static final class Node<T> {
         T data;
         Node<T> next;
         Node<T> prev;
@@ -44,6 +65,82 @@ public class LinkedList<T> {
             this.next = null;
             this.prev = null;
         }
+
+        /**
+         * Возвращает данные узла.
+         *
+         * @return данные узла или null если узел удален из списка
+         */
+        public T getData() {
+            return data;
+        }
+    }
+
+    /**
+     * Исходный элемент ленивой глубокой копии, который еще не был клонирован.
+     * Хранится в поле data узла копии вместо самого элемента.
+     */
+    private static final class PendingClone {
+        final Object source;
+
+        /**
+         * Конструктор отложенного клона.
+         *
+         * @param source исходный элемент
+         */
+        PendingClone(Object source) {
+            this.source = source;
+        }
+    }
+
+    /**
+     * Еще не построенная середина ленивой копии: диапазон узлов источника между
+     * уже построенными головной и хвостовой частями копии.
+     *
+     * @param <T> тип элементов
+     */
+    private static final class LazyRange<T> {
+        Node<T> frontTail;
+        Node<T> backHead;
+        Node<T> sourceFrom;
+        Node<T> sourceTo;
+        int frontSize;
+        int backSize;
+        int middleSize;
+
+        /**
+         * Конструктор диапазона, охватывающего весь источник.
+         *
+         * @param sourceFrom первый узел источника
+         * @param sourceTo последний узел источника
+         * @param middleSize количество узлов в диапазоне
+         */
+        LazyRange(Node<T> sourceFrom, Node<T> sourceTo, int middleSize) {
+            this.sourceFrom = sourceFrom;
+            this.sourceTo = sourceTo;
+            this.middleSize = middleSize;
+        }
+    }
+
+    /**
+     * Слабая ссылка на ленивую копию, читающую узлы этого списка.
+     * Копии образуют односвязную цепочку.
+     *
+     * @param <T> тип элементов
+     */
+    private static final class LazyDependent<T> extends WeakReference<LinkedList<T>> {
+        LazyDependent<T> next;
+
+        /**
+         * Конструктор звена цепочки.
+         *
+         * @param copy ленивая копия
+         * @param next следующее звено
+         */
+        LazyDependent(LinkedList<T> copy, LazyDependent<T> next) {
+            super(copy);
+            this.next = next;
+        }
     }
 
     /**
@@ -65,9 +162,10 @@ public class LinkedList<T> {
     public LinkedList(LinkedList<T> other) {
         this();
         if (other != null && !other.isEmpty()) {
+            other.materialize();
             Node<T> current = other.head;
             while (current != null) {
-                this.add(current.data);
+                this.add(other.resolve(current));
                 current = current.next;
             }
         }
@@ -84,9 +182,10 @@ public class LinkedList<T> {
             return copyList;
         }
 
+        materialize();
         Node<T> current = this.head;
         while (current != null) {
-            copyList.add(current.data);
+            copyList.add(resolve(current));
             current = current.next;
         }
 
@@ -99,36 +198,62 @@ public class LinkedList<T> {
      *
      * @return глубокая копия списка
      */
-    @SuppressWarnings("unchecked")
     public LinkedList<T> deepCopy() {
         LinkedList<T> copyList = new LinkedList<>();
         if (this.isEmpty()) {
             return copyList;
         }
 
+        materialize();
         Node<T> current = this.head;
         while (current != null) {
-            T data = current.data;
-            if (data instanceof Cloneable) {
-                try {
-                    data = (T) data.getClass().getMethod("clone").invoke(data);
-                } catch (Exception e) {
-                    // Если клонирование не удалось, используем оригинальные данные
-                }
-            }
-            copyList.add(data);
+            copyList.add(cloneElement(peek(current)));
             current = current.next;
         }
 
         return copyList;
     }
 
+    /**
+     * Создает ленивую глубокую копию списка за O(1).
+     * Узлы копии строятся по мере обращения к ним, а каждый элемент клонируется
+     * (как в {@link #deepCopy()}) только при первом чтении через копию; до этого копия
+     * держит ссылку на исходный элемент. Поиск по копии сравнивает исходные элементы
+     * и не клонирует их.
+     * <p>
+     * Структурные изменения этого списка после создания копии на нее не влияют:
+     * перед вставкой по индексу, удалением или очисткой список достраивает узлы
+     * своих ленивых копий (без клонирования элементов). Добавление в конец копий не затрагивает.
+     * Чтение этого списка ничего не изменяет и стоит столько же, сколько без копий.
+     * Изменение самих элементов на месте до их первого чтения через копию будет видно в копии,
+     * поэтому ленивая копия подходит для элементов, которые в оригинале не изменяются.
+     * Чтение через копию клонирует и запоминает элементы, поэтому копию нельзя
+     * читать из нескольких потоков без синхронизации.
+     *
+     * @return ленивая глубокая копия списка
+     */
+    public LinkedList<T> lazyDeepCopy() {
+        LinkedList<T> copyList = new LinkedList<>();
+        if (this.isEmpty()) {
+            return copyList;
+        }
+
+        materialize();
+        pruneLazyDependents();
+        copyList.size = this.size;
+        copyList.holdsPending = true;
+        copyList.lazyRange = new LazyRange<>(this.head, this.tail, this.size);
+        lazyDependents = new LazyDependent<>(copyList, lazyDependents);
+        return copyList;
+    }
+
     /**
      * Добавляет элемент в конец списка.
      *
      * @param data элемент для добавления
      */
     public void add(T data) {
+        materialize();
         Node<T> newNode = new Node<>(data);
         if (head == null) {
             head = newNode;
@@ -141,6 +266,112 @@ public class LinkedList<T> {
         size++;
     }
 
+    /**
+     * Добавляет элемент в конец списка и возвращает его узел.
+     *
+     * @param data элемент для добавления
+     * @return узел добавленного элемента
+     */
+    public Node<T> addNode(T data) {
+        add(data);
+        return tail;
+    }
+
+    /**
+     * Удаляет узел из списка за O(1).
+     * Повторное удаление уже удаленного узла ничего не делает.
+     *
+     * @param node узел, ранее полученный из {@link #addNode(Object)} этого списка
+     * @return true если узел был удален, false если он уже не находится в списке
+     */
+    public boolean unlink(Node<T> node) {
+        materialize();
+        if (node.prev == null && node.next == null && head != node) {
+            return false;
+        }
+        unlinkNode(node);
+        return true;
+    }
+
+    /**
+     * Удаляет несколько узлов за один проход по списку, то есть за O(n + k)
+     * вместо O(n) на каждый узел при вычислении индексов по отдельности.
+     * Узлы, уже не находящиеся в списке, пропускаются.
+     * Обработчик вызывается после того, как все узлы удалены и список снова согласован,
+     * поэтому из него можно обращаться к списку.
+     *
+     * @param nodes узлы, ранее полученные из {@link #addNode(Object)} этого списка
+     * @param onRemoved обработчик удаленного элемента и индекса, который он имел в момент
+     *                  своего удаления (с учетом удаленных перед ним узлов)
+     * @return количество удаленных узлов
+     */
+    @SuppressWarnings("unchecked")
+    public int unlinkAll(LinkedList<Node<T>> nodes, ObjIntConsumer<? super T> onRemoved) {
+        if (nodes.isEmpty()) {
+            return 0;
+        }
+        materialize();
+        detachLazyCopies();
+        // Проход вперед идет только по ссылкам next, поэтому prev можно временно занять меткой
+        nodes.forEach(node -> {
+            if (node.prev != null || node.next != null || head == node) {
+                node.prev = (Node<T>) UNLINK_MARK;
+            }
+        });
+        Object[] removedValues = new Object[nodes.size()];
+        int[] removedIndexes = new int[nodes.size()];
+        Node<T> previous = null;
+        Node<T> current = head;
+        int index = 0;
+        int removed = 0;
+        while (current != null) {
+            Node<T> next = current.next;
+            if (current.prev == UNLINK_MARK) {
+                if (previous == null) {
+                    head = next;
+                } else {
+                    previous.next = next;
+                }
+                removedValues[removed] = resolve(current);
+                removedIndexes[removed] = index;
+                current.prev = null;
+                current.next = null;
+                current.data = null;
+                size--;
+                removed++;
+            } else {
+                current.prev = previous;
+                previous = current;
+                index++;
+            }
+            current = next;
+        }
+        tail = previous;
+        for (int i = 0; i < removed; i++) {
+            onRemoved.accept((T) removedValues[i], removedIndexes[i]);
+        }
+        return removed;
+    }
+
+    /**
+     * Находит узел первого вхождения указанного элемента.
+     *
+     * @param data элемент для поиска
+     * @return узел элемента или null если элемент не найден
+     */
+    public Node<T> findNode(T data) {
+        materialize();
+        Node<T> current = head;
+        while (current != null) {
+            if (matches(peek(current), data)) {
+                resolve(current);
+                return current;
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
     /**
      * Добавляет элемент по указанному индексу.
      *
@@ -158,6 +389,8 @@ public class LinkedList<T> {
             return;
         }
 
+        materialize();
+        detachLazyCopies();
         Node<T> newNode = new Node<>(data);
         if (index == 0) {
             newNode.next = head;
@@ -184,7 +417,7 @@ public class LinkedList<T> {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        return getNode(index).data;
+        return resolve(getNode(index));
     }
 
     /**
@@ -199,26 +432,18 @@ public class LinkedList<T> {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
 
+        materialize();
         Node<T> toRemove;
         if (index == 0) {
             toRemove = head;
-            head = head.next;
-            if (head != null) {
-                head.prev = null;
-            } else {
-                tail = null;
-            }
         } else if (index == size - 1) {
             toRemove = tail;
-            tail = tail.prev;
-            tail.next = null;
         } else {
             toRemove = getNode(index);
-            toRemove.prev.next = toRemove.next;
-            toRemove.next.prev = toRemove.prev;
         }
-        size--;
-        return toRemove.data;
+        T removed = resolve(toRemove);
+        unlinkNode(toRemove);
+        return removed;
     }
 
     /**
@@ -228,24 +453,11 @@ public class LinkedList<T> {
      * @return true если элемент был удален, false если элемент не найден
      */
     public boolean remove(T data) {
+        materialize();
         Node<T> current = head;
         while (current != null) {
-            if (current.data.equals(data)) {
-                if (current == head) {
-                    head = head.next;
-                    if (head != null) {
-                        head.prev = null;
-                    } else {
-                        tail = null;
-                    }
-                } else if (current == tail) {
-                    tail = tail.prev;
-                    tail.next = null;
-                } else {
-                    current.prev.next = current.next;
-                    current.next.prev = current.prev;
-                }
-                size--;
+            if (matches(peek(current), data)) {
+                unlinkNode(current);
                 return true;
             }
             current = current.next;
@@ -275,6 +487,17 @@ public class LinkedList<T> {
      * Очищает список, удаляя все элементы.
      */
     public void clear() {
+        detachLazyCopies();
+        lazyRange = null;
+        // Разрываем связи, чтобы ранее выданные узлы считались удаленными
+        Node<T> current = head;
+        while (current != null) {
+            Node<T> next = current.next;
+            current.next = null;
+            current.prev = null;
+            current.data = null;
+            current = next;
+        }
         head = null;
         tail = null;
         size = 0;
@@ -297,10 +520,11 @@ public class LinkedList<T> {
      * @return индекс элемента или -1 если элемент не найден
      */
     public int indexOf(T data) {
+        materialize();
         Node<T> current = head;
         int index = 0;
         while (current != null) {
-            if (current.data.equals(data)) {
+            if (matches(peek(current), data)) {
                 return index;
             }
             current = current.next;
@@ -315,16 +539,277 @@ public class LinkedList<T> {
      * @return массив содержащий все элементы списка
      */
     public Object[] toArray() {
+        materialize();
         Object[] array = new Object[size];
         Node<T> current = head;
         int index = 0;
         while (current != null) {
-            array[index++] = current.data;
+            array[index++] = resolve(current);
             current = current.next;
         }
         return array;
     }
 
+    /**
+     * Выполняет действие для каждого элемента списка в порядке от головы к хвосту.
+     * В отличие от {@link #toArray()} не создает промежуточных копий.
+     *
+     * @param action действие для выполнения над каждым элементом
+     */
+    public void forEach(Consumer<? super T> action) {
+        materialize();
+        Node<T> current = head;
+        while (current != null) {
+            action.accept(resolve(current));
+            current = current.next;
+        }
+    }
+
+    /**
+     * Сравнивает элемент списка с искомым: сначала по ссылке, затем через equals.
+     * Для канонизированных (интернированных) элементов сравнение по ссылке
+     * позволяет обойтись без вызова equals.
+     *
+     * @param element элемент списка
+     * @param data искомый элемент
+     * @return true если элементы равны
+     */
+    private static boolean matches(Object element, Object data) {
+        return element == data || element.equals(data);
+    }
+
+    /**
+     * Вспомогательный метод для исключения узла из цепочки.
+     * Обнуляет ссылки узла, чтобы он считался удаленным, и его данные,
+     * чтобы выданный ранее дескриптор узла не удерживал элемент.
+     *
+     * @param node узел для удаления
+     */
+    private void unlinkNode(Node<T> node) {
+        detachLazyCopies();
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+        node.data = null;
+        size--;
+    }
+
+    /**
+     * Возвращает элемент узла, клонируя его при первом чтении, если узел ленивой копии
+     * еще держит исходный элемент.
+     *
+     * @param node узел
+     * @return элемент узла
+     */
+    @SuppressWarnings("unchecked")
+    private T resolve(Node<T> node) {
+        if (holdsPending && node.data instanceof PendingClone pending) {
+            node.data = cloneElement((T) pending.source);
+        }
+        return node.data;
+    }
+
+    /**
+     * Возвращает элемент узла для сравнения, не клонируя его.
+     *
+     * @param node узел
+     * @return элемент узла или исходный элемент еще не клонированного узла
+     */
+    @SuppressWarnings("unchecked")
+    private T peek(Node<T> node) {
+        if (holdsPending && node.data instanceof PendingClone pending) {
+            return (T) pending.source;
+        }
+        return node.data;
+    }
+
+    /**
+     * Клонирует элемент, если он поддерживает интерфейс Cloneable.
+     *
+     * @param data элемент
+     * @param <T> тип элемента
+     * @return клон элемента или сам элемент, если клонирование невозможно
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T cloneElement(T data) {
+        if (data instanceof Cloneable) {
+            try {
+                return (T) data.getClass().getMethod("clone").invoke(data);
+            } catch (Exception e) {
+                // Если клонирование не удалось, используем оригинальные данные
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Достраивает все узлы ленивой копии. Элементы при этом не клонируются.
+     */
+    private void materialize() {
+        if (lazyRange != null) {
+            extendFront(lazyRange.middleSize);
+        }
+    }
+
+    /**
+     * Достраивает узлы ленивых копий этого списка перед структурным изменением,
+     * чтобы копии больше не читали его узлы.
+     */
+    private void detachLazyCopies() {
+        LazyDependent<T> dependent = lazyDependents;
+        lazyDependents = null;
+        while (dependent != null) {
+            LinkedList<T> copyList = dependent.get();
+            if (copyList != null) {
+                copyList.materialize();
+            }
+            dependent = dependent.next;
+        }
+    }
+
+    /**
+     * Убирает из цепочки ленивых копий собранные сборщиком мусора и уже достроенные копии.
+     */
+    private void pruneLazyDependents() {
+        LazyDependent<T> previous = null;
+        LazyDependent<T> dependent = lazyDependents;
+        while (dependent != null) {
+            LinkedList<T> copyList = dependent.get();
+            if (copyList == null || copyList.lazyRange == null) {
+                if (previous == null) {
+                    lazyDependents = dependent.next;
+                } else {
+                    previous.next = dependent.next;
+                }
+            } else {
+                previous = dependent;
+            }
+            dependent = dependent.next;
+        }
+    }
+
+    /**
+     * Возвращает узел ленивой копии по индексу, достраивая недостающие узлы
+     * с ближайшей к индексу стороны.
+     *
+     * @param index индекс узла
+     * @return узел по указанному индексу
+     */
+    private Node<T> getLazyNode(int index) {
+        LazyRange<T> range = lazyRange;
+        int backStart = size - range.backSize;
+        if (index < range.frontSize) {
+            Node<T> current = head;
+            for (int i = 0; i < index; i++) {
+                current = current.next;
+            }
+            traversedNodes += index;
+            return current;
+        }
+        if (index >= backStart) {
+            Node<T> current = tail;
+            for (int i = size - 1; i > index; i--) {
+                current = current.prev;
+            }
+            traversedNodes += size - 1 - index;
+            return current;
+        }
+        if (index - range.frontSize < backStart - 1 - index) {
+            extendFront(index - range.frontSize + 1);
+            return range.frontTail;
+        }
+        extendBack(backStart - index);
+        return range.backHead;
+    }
+
+    /**
+     * Достраивает указанное количество узлов в конец головной части ленивой копии.
+     *
+     * @param count количество узлов
+     */
+    private void extendFront(int count) {
+        LazyRange<T> range = lazyRange;
+        for (int i = 0; i < count; i++) {
+            Node<T> newNode = new Node<>(pendingOf(range.sourceFrom));
+            if (range.frontTail == null) {
+                head = newNode;
+            } else {
+                range.frontTail.next = newNode;
+                newNode.prev = range.frontTail;
+            }
+            range.frontTail = newNode;
+            range.sourceFrom = range.sourceFrom.next;
+            range.frontSize++;
+            range.middleSize--;
+        }
+        joinIfComplete();
+    }
+
+    /**
+     * Достраивает указанное количество узлов в начало хвостовой части ленивой копии.
+     *
+     * @param count количество узлов
+     */
+    private void extendBack(int count) {
+        LazyRange<T> range = lazyRange;
+        for (int i = 0; i < count; i++) {
+            Node<T> newNode = new Node<>(pendingOf(range.sourceTo));
+            if (range.backHead == null) {
+                tail = newNode;
+            } else {
+                range.backHead.prev = newNode;
+                newNode.next = range.backHead;
+            }
+            range.backHead = newNode;
+            range.sourceTo = range.sourceTo.prev;
+            range.backSize++;
+            range.middleSize--;
+        }
+        joinIfComplete();
+    }
+
+    /**
+     * Соединяет головную и хвостовую части, когда середина ленивой копии полностью достроена.
+     */
+    private void joinIfComplete() {
+        LazyRange<T> range = lazyRange;
+        if (range.middleSize > 0) {
+            return;
+        }
+        if (range.frontTail == null) {
+            head = range.backHead;
+        } else if (range.backHead == null) {
+            tail = range.frontTail;
+        } else {
+            range.frontTail.next = range.backHead;
+            range.backHead.prev = range.frontTail;
+        }
+        lazyRange = null;
+    }
+
+    /**
+     * Возвращает отложенный клон элемента узла источника.
+     * Еще не клонированные элементы источника используют тот же отложенный клон.
+     *
+     * @param source узел источника
+     * @param <T> тип элементов
+     * @return данные для узла ленивой копии
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T pendingOf(Node<T> source) {
+        Object data = source.data;
+        return (T) (data instanceof PendingClone ? data : new PendingClone(data));
+    }
+
     /**
      * Вспомогательный метод для получения узла по индексу.
      * Оптимизирован для поиска с начала или конца в зависимости от позиции.
@@ -333,17 +818,22 @@ public class LinkedList<T> {
      * @return узел по указанному индексу
      */
     private Node<T> getNode(int index) {
+        if (lazyRange != null) {
+            return getLazyNode(index);
+        }
         Node<T> current;
         if (index < size / 2) {
             current = head;
             for (int i = 0; i < index; i++) {
                 current = current.next;
             }
+            traversedNodes += index;
         } else {
             current = tail;
             for (int i = size - 1; i > index; i--) {
                 current = current.prev;
             }
+            traversedNodes += size - 1 - index;
         }
         return current;
     }
@@ -355,10 +845,11 @@ public class LinkedList<T> {
      */
     @Override
     public String toString() {
+        materialize();
         StringBuilder sb = new StringBuilder("[");
         Node<T> current = head;
         while (current != null) {
-            sb.append(current.data);
+            sb.append(peek(current));
             if (current.next != null) {
                 sb.append(", ");
             }
@@ -0,0 +1,22 @@
+package ru.hamming.untils;
+
+/**
+ * Оценщик объема памяти, занимаемой элементом.
+ *
+ * @param <T> тип оцениваемых элементов
+ * @version 1.0
+ * @author Hamming
+ */
+@FunctionalInterface
+public interface MemorySizer<T> {
+
+    /**
+     * Возвращает оценку объема памяти элемента в байтах.
+     * Для одного и того же элемента оценка должна быть неизменной,
+     * иначе учет при удалении разойдется с учетом при добавлении.
+     *
+     * @param value элемент, может быть null
+     * @return оценка объема в байтах
+     */
+    long sizeOf(T value);
+}
@@ -0,0 +1,161 @@
+package ru.hamming.untils;
+
+/**
+ * Счетчик ссылок на экземпляры, различающий объекты по идентичности, а не по equals.
+ * Хэш-таблица с открытой адресацией и линейным пробированием; удаление сдвигает
+ * следующие элементы цепочки назад, поэтому таблица не накапливает удаленных слотов.
+ * Не синхронизирован.
+ *
+ * @param <T> тип экземпляров
+ * @version 1.0
+ * @author Hamming
+ */
+public class ReferenceCounter<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] counts;
+    private int size;
+
+    /**
+     * Конструктор пустого счетчика.
+     */
+    public ReferenceCounter() {
+        this.keys = new Object[INITIAL_CAPACITY];
+        this.counts = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Возвращает количество ссылок на экземпляр.
+     *
+     * @param value экземпляр
+     * @return количество ссылок; 0 если экземпляр не учитывается
+     * @throws NullPointerException если экземпляр равен null
+     */
+    public int count(T value) {
+        int slot = find(value);
+        return keys[slot] == null ? 0 : counts[slot];
+    }
+
+    /**
+     * Увеличивает количество ссылок на экземпляр.
+     *
+     * @param value экземпляр
+     * @return количество ссылок после увеличения
+     * @throws NullPointerException если экземпляр равен null
+     */
+    public int increment(T value) {
+        int slot = find(value);
+        if (keys[slot] == null) {
+            keys[slot] = value;
+            size++;
+            if (size * 2 > keys.length) {
+                resize();
+                slot = find(value);
+            }
+        }
+        return ++counts[slot];
+    }
+
+    /**
+     * Уменьшает количество ссылок на экземпляр; при достижении нуля экземпляр забывается.
+     *
+     * @param value экземпляр
+     * @return оставшееся количество ссылок либо -1, если экземпляр не учитывался
+     * @throws NullPointerException если экземпляр равен null
+     */
+    public int decrement(T value) {
+        int slot = find(value);
+        if (keys[slot] == null) {
+            return -1;
+        }
+        int remaining = --counts[slot];
+        if (remaining == 0) {
+            delete(slot);
+        }
+        return remaining;
+    }
+
+    /**
+     * Возвращает количество различных учитываемых экземпляров.
+     *
+     * @return количество экземпляров
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Находит слот экземпляра или пустой слот, в который его следует поместить.
+     *
+     * @param value экземпляр
+     * @return индекс слота
+     */
+    private int find(Object value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int mask = keys.length - 1;
+        int slot = indexFor(value, mask);
+        while (keys[slot] != null && keys[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Освобождает слот, сдвигая назад элементы, которые без него стали бы недостижимы.
+     *
+     * @param slot освобождаемый слот
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int current = (hole + 1) & mask;
+        while (keys[current] != null) {
+            int home = indexFor(keys[current], mask);
+            // Элемент можно перенести в дыру, если его исходный слот не лежит между дырой и им
+            if (((current - home) & mask) >= ((current - hole) & mask)) {
+                keys[hole] = keys[current];
+                counts[hole] = counts[current];
+                hole = current;
+            }
+            current = (current + 1) & mask;
+        }
+        keys[hole] = null;
+        counts[hole] = 0;
+        size--;
+    }
+
+    /**
+     * Увеличивает таблицу вдвое и перераспределяет экземпляры.
+     */
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new Object[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Вычисляет исходный слот экземпляра по его идентификационному хэш-коду.
+     *
+     * @param value экземпляр
+     * @param mask маска таблицы
+     * @return индекс слота
+     */
+    private static int indexFor(Object value, int mask) {
+        int hash = System.identityHashCode(value);
+        hash ^= hash >>> 16;
+        return hash & mask;
+    }
+}
@@ -0,0 +1,207 @@
+package ru.hamming.untils;
+
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров.
+ * Состоит из нескольких уровней по 64 слота: слот уровня 0 соответствует одному тику,
+ * слот уровня L - 64^L тикам. Таймеры дальних уровней каскадом переносятся на нижние
+ * по мере продвижения времени, поэтому постановка и срабатывание таймера стоят O(1).
+ * <p>
+ * Срок таймера округляется вниз до границы тика, так что таймер срабатывает
+ * не позже своего срока и не раньше чем за один тик до него.
+ * Пока нижние уровни пусты, колесо перескакивает сразу к ближайшей границе каскада
+ * занятого уровня, поэтому простой контейнера не приводит к обходу каждого тика.
+ *
+ * @param <E> тип объектов, привязанных к таймерам
+ * @version 1.0
+ * @author Hamming
+ */
+public class TimingWheel<E> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    private final Timer<E>[][] wheels;
+    private final int[] levelSizes;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Внутренний класс для представления таймера в слоте колеса.
+     *
+     * @param <E> тип привязанного объекта
+     */
+    private static class Timer<E> {
+        final E payload;
+        final long expiryTick;
+        Timer<E> next;
+
+        /**
+         * Конструктор таймера.
+         *
+         * @param payload привязанный объект
+         * @param expiryTick тик срабатывания
+         */
+        Timer(E payload, long expiryTick) {
+            this.payload = payload;
+            this.expiryTick = expiryTick;
+        }
+    }
+
+    /**
+     * Конструктор колеса.
+     *
+     * @param tickNanos длительность тика в наносекундах
+     * @param startNanos текущее время в наносекундах
+     * @throws IllegalArgumentException если длительность тика не положительна
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickNanos, long startNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickNanos);
+        }
+        this.tickNanos = tickNanos;
+        this.wheels = (Timer<E>[][]) new Timer[LEVELS][WHEEL_SIZE];
+        this.levelSizes = new int[LEVELS];
+        this.currentTick = Math.floorDiv(startNanos, tickNanos);
+        this.size = 0;
+    }
+
+    /**
+     * Ставит таймер для объекта.
+     * Таймер, срок которого приходится на уже пройденный тик, не ставится.
+     *
+     * @param payload привязанный объект
+     * @param deadlineNanos момент срабатывания в наносекундах
+     * @return true если таймер поставлен, false если его срок уже наступил
+     */
+    public boolean schedule(E payload, long deadlineNanos) {
+        long expiryTick = Math.floorDiv(deadlineNanos, tickNanos);
+        if (expiryTick < currentTick) {
+            return false;
+        }
+        insert(new Timer<>(payload, expiryTick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до указанного момента и передает объекты сработавших таймеров в обработчик.
+     *
+     * @param nowNanos текущее время в наносекундах
+     * @param onExpire обработчик сработавших объектов
+     * @return количество сработавших таймеров
+     */
+    public int advance(long nowNanos, Consumer<? super E> onExpire) {
+        long targetTick = Math.floorDiv(nowNanos, tickNanos);
+        int expired = 0;
+        while (currentTick <= targetTick) {
+            if (size == 0) {
+                // Пустое колесо можно перемотать без обхода слотов
+                currentTick = targetTick + 1;
+                break;
+            }
+            int index = (int) (currentTick & WHEEL_MASK);
+            if (index == 0) {
+                cascade();
+            }
+            if (levelSizes[0] == 0) {
+                // До ближайшей границы каскада занятого уровня срабатывать нечему
+                currentTick = Math.min(nextCascadeTick(), targetTick + 1);
+                continue;
+            }
+            Timer<E> timer = wheels[0][index];
+            wheels[0][index] = null;
+            while (timer != null) {
+                Timer<E> next = timer.next;
+                timer.next = null;
+                levelSizes[0]--;
+                size--;
+                expired++;
+                onExpire.accept(timer.payload);
+                timer = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * Возвращает количество ожидающих таймеров.
+     *
+     * @return количество таймеров
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, нет ли ожидающих таймеров.
+     *
+     * @return true если таймеров нет, false в противном случае
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает ближайший следующий тик, на котором каскад затронет самый нижний
+     * непустой уровень. Вызывается, только когда уровень 0 пуст, а колесо - нет.
+     *
+     * @return тик следующего значимого каскада
+     */
+    private long nextCascadeTick() {
+        int level = 1;
+        while (levelSizes[level] == 0) {
+            level++;
+        }
+        long span = 1L << (WHEEL_BITS * level);
+        return (Math.floorDiv(currentTick, span) + 1) * span;
+    }
+
+    /**
+     * Переносит таймеры с верхних уровней на нижние при переходе через границу уровня.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            Timer<E> timer = wheels[level][index];
+            wheels[level][index] = null;
+            while (timer != null) {
+                Timer<E> next = timer.next;
+                timer.next = null;
+                levelSizes[level]--;
+                insert(timer);
+                timer = next;
+            }
+            if (index != 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Помещает таймер в слот, соответствующий оставшемуся до срабатывания времени.
+     * Слишком дальние таймеры попадают в последний уровень,
+     * откуда они будут перенесены заново при каскаде.
+     *
+     * @param timer таймер для размещения
+     */
+    private void insert(Timer<E> timer) {
+        long delta = Math.min(timer.expiryTick - currentTick, MAX_DELTA);
+        long slotTick = currentTick + delta;
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        timer.next = wheels[level][index];
+        wheels[level][index] = timer;
+        levelSizes[level]++;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.hamming;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppRunnerTest {
+
+    @Test
+    void testParseDefaults() {
+        AppRunner.Workload workload = AppRunner.Workload.parse(new String[0]);
+
+        assertEquals(AppRunner.KeyDistribution.UNIFORM, workload.distribution);
+        assertEquals(4, workload.threads);
+        assertFalse(workload.virtualThreads);
+        assertFalse(workload.sharded);
+    }
+
+    @Test
+    void testParseInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AppRunner.Workload.parse(new String[]{"--add=50"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> AppRunner.Workload.parse(new String[]{"--distribution=gaussian"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> AppRunner.Workload.parse(new String[]{"--threads=0"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> AppRunner.Workload.parse(new String[]{"threads=2"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> AppRunner.Workload.parse(new String[]{"--unknown=1"}));
+    }
+
+    @Test
+    void testRunOnPlatformThreads() throws InterruptedException {
+        AppRunner.Workload workload = AppRunner.Workload.parse(new String[]{
+                "--size=100", "--threads=2", "--distribution=zipfian"});
+
+        AppRunner.LoadReport report = AppRunner.run(workload, 1000);
+
+        assertEquals(2000, report.operations);
+        assertTrue(report.throughput > 0);
+        assertTrue(report.percentile(50) <= report.percentile(99));
+        assertTrue(report.toString().contains("throughput"));
+    }
+
+    @Test
+    void testRunShardedOnVirtualThreads() throws InterruptedException {
+        AppRunner.Workload workload = AppRunner.Workload.parse(new String[]{
+                "--size=100", "--threads=4", "--thread-type=virtual", "--backend=sharded", "--shards=4",
+                "--distribution=sequential", "--add=20", "--add-at=20", "--get=20", "--remove-at=20",
+                "--remove-value=20"});
+
+        AppRunner.LoadReport report = AppRunner.run(workload, 500);
+
+        assertEquals(2000, report.operations);
+        assertTrue(report.toString().contains("sharded(4)"));
+        // Счетчиков виртуальных потоков нет, выделение измеряется по всем потокам JVM
+        assertTrue(report.allocatedBytes > 0);
+        assertTrue(report.toString().contains("B/op (all JVM threads)"), report.toString());
+    }
+}
@@ -2,7 +2,13 @@ package ru.hamming;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.hamming.untils.ClassLayoutSizer;
+import ru.hamming.untils.Interner;
 import ru.hamming.untils.LinkedList;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ClassContainerTest {
@@ -117,4 +123,167 @@ public class ClassContainerTest {
         container.add(0, "test");
         assertEquals(1, container.getContainerValues().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddWithTtlExpiresOnAccess() {
+        long[] now = {0};
+        ClassContainer<String> timed = new ClassContainer<>(5, ForkJoinPool.commonPool(), () -> now[0]);
+        timed.add("short", Duration.ofMillis(10));
+        timed.add("permanent");
+        timed.add("long", Duration.ofSeconds(10));
+
+        now[0] = Duration.ofMillis(5).toNanos();
+        assertEquals("short", timed.get(0));
+
+        now[0] = Duration.ofMillis(10).toNanos();
+        assertEquals("permanent", timed.get(0));
+        assertEquals("long", timed.get(1));
+        assertEquals(1, timed.getExpiredCount());
+
+        now[0] = Duration.ofHours(1).toNanos();
+        assertEquals(1, timed.getContainerValues().size());
+        assertEquals(2, timed.getExpiredCount());
+    }
+
+    @Test
+    void testAddWithElapsedTtlIsNeverVisible() {
+        long[] now = {Duration.ofSeconds(1).toNanos()};
+        ClassContainer<String> timed = new ClassContainer<>(5, ForkJoinPool.commonPool(), () -> now[0]);
+        timed.add("first", Duration.ofMillis(10));
+        timed.get(0);
+        timed.add("expired", Duration.ZERO);
+
+        assertEquals(1, timed.getContainerValues().size());
+        assertEquals(1, timed.getExpiredCount());
+    }
+
+    @Test
+    void testVeryLongTtlDoesNotOverflow() {
+        long start = Long.MAX_VALUE - Duration.ofDays(30).toNanos();
+        long[] now = {start};
+        ClassContainer<String> timed = new ClassContainer<>(5, ForkJoinPool.commonPool(), () -> now[0]);
+        // Срок больше ~292 лет не представим в наносекундах и считается бесконечным
+        timed.add("forever", Duration.ofDays(365_000));
+        timed.add("week", Duration.ofDays(7));
+
+        now[0] = start + Duration.ofDays(8).toNanos();
+        assertEquals(1, timed.size());
+        assertEquals("forever", timed.get(0));
+        assertEquals(1, timed.getExpiredCount());
+    }
+
+    @Test
+    void testRemovedElementIsNotCountedAsExpired() {
+        long[] now = {0};
+        ClassContainer<String> timed = new ClassContainer<>(5, ForkJoinPool.commonPool(), () -> now[0]);
+        timed.add("value", Duration.ofMillis(10));
+        assertTrue(timed.remove("value"));
+
+        now[0] = Duration.ofSeconds(1).toNanos();
+        assertEquals(0, timed.expire());
+        assertEquals(0, timed.getExpiredCount());
+    }
+
+    @Test
+    void testExpirationSweeper() throws InterruptedException {
+        container.add("value", Duration.ofMillis(1));
+        Thread sweeper = container.startExpirationSweeper(Duration.ofMillis(1));
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (container.getExpiredCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        } finally {
+            sweeper.interrupt();
+            sweeper.join();
+        }
+
+        assertEquals(1, container.getExpiredCount());
+        assertTrue(container.getContainerValues().isEmpty());
+    }
+
+    @Test
+    void testRetainedBytesTracksAddAndRemove() {
+        assertEquals(0, container.getRetainedBytes());
+        assertEquals(Long.MAX_VALUE, container.getByteBudget());
+
+        container.add("short");
+        long afterFirst = container.getRetainedBytes();
+        assertTrue(afterFirst > 0);
+
+        container.add("a much longer value than the first one");
+        assertTrue(container.getRetainedBytes() > 2 * afterFirst);
+
+        container.remove(Integer.valueOf(1));
+        assertEquals(afterFirst, container.getRetainedBytes());
+        container.remove("short");
+        assertEquals(0, container.getRetainedBytes());
+    }
+
+    @Test
+    void testByteBudget() {
+        ClassContainer<String> budgeted = new ClassContainer<>(100, value -> 100, 300);
+        budgeted.add("first");
+        budgeted.add(0, "second");
+
+        assertThrows(IllegalStateException.class, () -> budgeted.add("third"));
+        assertEquals(2, budgeted.getContainerValues().size());
+
+        budgeted.remove("first");
+        budgeted.add("third");
+        assertEquals(2, budgeted.getContainerValues().size());
+        assertThrows(IllegalArgumentException.class, () -> new ClassContainer<String>(1, value -> 1, 0));
+    }
+
+    @Test
+    void testInterningSharesEqualValues() {
+        container.setInterner(new Interner<>(64));
+        container.add(new String("ok"));
+        container.add(0, new String("ok"));
+        container.add(new String("ok"), Duration.ofMinutes(1));
+
+        assertSame(container.get(0), container.get(1));
+        assertSame(container.get(0), container.get(2));
+        assertEquals(0, container.indexOf(new String("ok")));
+        assertTrue(container.contains("ok"));
+        assertTrue(container.remove(new String("ok")));
+        assertEquals(2, container.size());
+        assertEquals(-1, container.indexOf("missing"));
+    }
+
+    @Test
+    void testInternedInstanceIsChargedOnce() {
+        ClassContainer<String> plain = new ClassContainer<>(10);
+        plain.add(new String("shared value"));
+        long single = plain.getRetainedBytes();
+        long node = single - ClassLayoutSizer.INSTANCE.sizeOf("shared value");
+
+        container.setInterner(new Interner<>(64));
+        for (int i = 0; i < 3; i++) {
+            container.add(new String("shared value"));
+        }
+        assertEquals(single + 2 * node, container.getRetainedBytes());
+
+        container.remove(Integer.valueOf(0));
+        container.remove(Integer.valueOf(0));
+        assertEquals(single, container.getRetainedBytes());
+        container.remove("shared value");
+        assertEquals(0, container.getRetainedBytes());
+    }
+
+    @Test
+    void testDisablingInternerKeepsSharedAccounting() {
+        String value = new String("shared value");
+        container.setInterner(new Interner<>(64));
+        container.add(value);
+        long single = container.getRetainedBytes();
+
+        container.setInterner(null);
+        container.add(value);
+        assertTrue(container.getRetainedBytes() > single);
+
+        container.remove(Integer.valueOf(0));
+        container.remove(Integer.valueOf(0));
+        assertEquals(0, container.getRetainedBytes());
+    }
+}
@@ -0,0 +1,232 @@
+package ru.hamming;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.hamming.untils.LinkedList;
+
+import java.time.Duration;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContainerChangePublisherTest {
+
+    private ClassContainer<String> container;
+    private RecordingSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        // Исполнитель в текущем потоке делает доставку детерминированной
+        container = new ClassContainer<>(5, Runnable::run);
+        subscriber = new RecordingSubscriber();
+        container.getChangePublisher().subscribe(subscriber);
+    }
+
+    @Test
+    void testAddAndRemoveEvents() {
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        container.add("first");
+        container.add(0, "zero");
+        container.remove(Integer.valueOf(1));
+        container.remove("zero");
+
+        assertEquals(4, subscriber.batches.size());
+        assertEquals(ContainerChange.add(1, 0, "first"), subscriber.batches.get(0).get(0));
+        assertEquals(ContainerChange.add(2, 0, "zero"), subscriber.batches.get(1).get(0));
+        assertEquals(ContainerChange.remove(3, 1, "first"), subscriber.batches.get(2).get(0));
+        assertEquals(ContainerChange.remove(4, 0, "zero"), subscriber.batches.get(3).get(0));
+    }
+
+    @Test
+    void testRemoveMissingValuePublishesNothing() {
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertFalse(container.remove("missing"));
+        assertTrue(subscriber.batches.isEmpty());
+    }
+
+    @Test
+    void testEventsAreBatchedWithoutDemand() {
+        container.add("a");
+        container.add("b");
+        container.add("c");
+        assertTrue(subscriber.batches.isEmpty());
+
+        subscriber.subscription.request(1);
+
+        assertEquals(1, subscriber.batches.size());
+        LinkedList<ContainerChange<String>> batch = subscriber.batches.get(0);
+        assertEquals(3, batch.size());
+        assertEquals(ContainerChange.add(3, 2, "c"), batch.get(2));
+    }
+
+    @Test
+    void testOverflowCoalescesIntoResync() {
+        for (int i = 0; i <= ContainerChangePublisher.DEFAULT_BUFFER_CAPACITY; i++) {
+            container.add(String.valueOf(i));
+        }
+        subscriber.subscription.request(1);
+
+        assertEquals(1, subscriber.batches.size());
+        assertEquals(ContainerChange.Type.RESYNC, subscriber.batches.get(0).get(0).getType());
+
+        container.add("after");
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.batches.size());
+        assertEquals("after", subscriber.batches.get(1).get(0).getValue());
+    }
+
+    @Test
+    void testResyncAndSnapshotCarrySequence() {
+        for (int i = 0; i <= ContainerChangePublisher.DEFAULT_BUFFER_CAPACITY; i++) {
+            container.add(String.valueOf(i));
+        }
+        container.remove(Integer.valueOf(0));
+        subscriber.subscription.request(1);
+
+        ContainerChange<String> resync = subscriber.batches.get(0).get(0);
+        assertEquals(ContainerChange.Type.RESYNC, resync.getType());
+        assertEquals(ContainerChangePublisher.DEFAULT_BUFFER_CAPACITY + 2, resync.getSequence());
+
+        // Снимок уже содержит "late", поэтому реплика пропустит его событие
+        container.add("late");
+        ContainerSnapshot<String> snapshot = container.getSnapshot();
+        container.add("later");
+        subscriber.subscription.request(1);
+
+        assertTrue(snapshot.getSequence() >= resync.getSequence());
+        assertEquals(ContainerChangePublisher.DEFAULT_BUFFER_CAPACITY + 1, snapshot.getValues().size());
+        LinkedList<ContainerChange<String>> batch = subscriber.batches.get(1);
+        assertEquals(snapshot.getSequence(), batch.get(0).getSequence());
+        assertEquals(snapshot.getSequence() + 1, batch.get(1).getSequence());
+        assertEquals("later", batch.get(1).getValue());
+    }
+
+    @Test
+    void testNoDeliveryScheduledWithoutDemand() {
+        AtomicInteger scheduled = new AtomicInteger();
+        ClassContainer<String> counted = new ClassContainer<>(5, task -> {
+            scheduled.incrementAndGet();
+            task.run();
+        });
+        RecordingSubscriber lagging = new RecordingSubscriber();
+        counted.getChangePublisher().subscribe(lagging);
+
+        for (int i = 0; i < 100; i++) {
+            counted.add(String.valueOf(i));
+        }
+        assertEquals(0, scheduled.get());
+
+        lagging.subscription.request(1);
+        assertEquals(1, scheduled.get());
+        assertEquals(100, lagging.batches.get(0).size());
+    }
+
+    @Test
+    void testExpiryPublishesRemovalIndexes() {
+        long[] now = {0};
+        ClassContainer<String> timed = new ClassContainer<>(5, Runnable::run, () -> now[0]);
+        RecordingSubscriber recording = new RecordingSubscriber();
+        timed.getChangePublisher().subscribe(recording);
+        timed.add("a", Duration.ofMillis(10));
+        timed.add("b");
+        timed.add("c", Duration.ofMillis(10));
+        timed.add("d");
+
+        now[0] = Duration.ofMillis(10).toNanos();
+        assertEquals("ClassContainer{sizeContainer=5, containerValues=[b, d]}", timed.toString());
+        recording.subscription.request(1);
+
+        // Индексы учитывают удаленные перед элементом узлы, как при последовательных удалениях
+        LinkedList<ContainerChange<String>> batch = recording.batches.get(0);
+        assertEquals(ContainerChange.remove(5, 0, "a"), batch.get(4));
+        assertEquals(ContainerChange.remove(6, 1, "c"), batch.get(5));
+        assertEquals(2, timed.getExpiredCount());
+    }
+
+    @Test
+    void testSynchronousSubscriberSeesConsistentContainerDuringExpiry() {
+        long[] now = {0};
+        ClassContainer<String> timed = new ClassContainer<>(5, Runnable::run, () -> now[0]);
+        StringBuilder observed = new StringBuilder();
+        timed.getChangePublisher().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(LinkedList<ContainerChange<String>> item) {
+                // Подписчик в потоке контейнера читает его прямо из onNext
+                int size = timed.size();
+                observed.append(item.get(0).getType()).append(" size=").append(size);
+                if (size > 0) {
+                    observed.append(" last=").append(timed.get(size - 1));
+                }
+                observed.append("; ");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        timed.add("a", Duration.ofMillis(10));
+        timed.add("b");
+        timed.add("c", Duration.ofMillis(10));
+        observed.setLength(0);
+
+        now[0] = Duration.ofMillis(10).toNanos();
+        assertEquals(1, timed.size());
+
+        // Оба удаления публикуются, когда список уже согласован
+        assertEquals("REMOVE size=1 last=b; REMOVE size=1 last=b; ", observed.toString());
+        assertEquals(2, timed.getExpiredCount());
+    }
+
+    @Test
+    void testCancelStopsDelivery() {
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.cancel();
+
+        container.add("ignored");
+        assertTrue(subscriber.batches.isEmpty());
+    }
+
+    @Test
+    void testNonPositiveRequestSignalsError() {
+        subscriber.subscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<LinkedList<ContainerChange<String>>> {
+        private final LinkedList<LinkedList<ContainerChange<String>>> batches = new LinkedList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(LinkedList<ContainerChange<String>> item) {
+            batches.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
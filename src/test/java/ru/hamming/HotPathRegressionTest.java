@@ -0,0 +1,253 @@
+package ru.hamming;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.hamming.untils.ClassLayoutSizer;
+import ru.hamming.untils.LinkedList;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Регрессионные проверки горячих путей: бюджеты выделения памяти
+ * по счетчику выделенных потоком байт и асимптотика поиска и позиционного доступа.
+ * Проверки позиционного доступа сравнивают время выполнения и помечены тегом timing:
+ * они исключены из обычного запуска и выполняются через {@code mvn test -Ptiming}.
+ * В обычном запуске асимптотику позиционного доступа проверяет счетчик пройденных узлов
+ * в {@code LinkedListTest}.
+ */
+public class HotPathRegressionTest {
+
+    private static final int OPERATIONS = 10_000;
+    private static final long SLACK_BYTES = 1024;
+    private static final long NODE_BYTES = ClassLayoutSizer.INSTANCE.shallowSize(LinkedList.Node.class);
+
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    private long sink;
+
+    @BeforeAll
+    static void setUpThreadBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void testGetDoesNotAllocate() {
+        LinkedList<String> list = filledList(1000);
+        ClassContainer<String> container = filledContainer(1000);
+        Integer index = 500;
+
+        Runnable listGet = () -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                sink += list.get(i % 1000).length();
+            }
+        };
+        Runnable containerGet = () -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                sink += container.get(index).length();
+            }
+        };
+
+        assertAllocatesAtMost(0, listGet);
+        assertAllocatesAtMost(0, containerGet);
+    }
+
+    @Test
+    void testIterationAndScansDoNotAllocate() {
+        LinkedList<String> list = filledList(1000);
+        Consumer<String> consumer = value -> sink += value.length();
+
+        assertAllocatesAtMost(0, () -> {
+            for (int i = 0; i < 100; i++) {
+                list.forEach(consumer);
+            }
+        });
+        assertAllocatesAtMost(0, () -> {
+            for (int i = 0; i < 100; i++) {
+                sink += list.indexOf("value-999");
+                sink += list.contains("missing") ? 1 : 0;
+            }
+        });
+    }
+
+    @Test
+    void testAddAllocatesOneNode() {
+        String value = "value";
+
+        assertAllocatesAtMost(OPERATIONS * NODE_BYTES, () -> {
+            LinkedList<String> list = new LinkedList<>();
+            for (int i = 0; i < OPERATIONS; i++) {
+                list.add(value);
+            }
+            sink += list.size();
+        });
+        assertAllocatesAtMost(OPERATIONS * NODE_BYTES, () -> {
+            ClassContainer<String> container = new ClassContainer<>(OPERATIONS);
+            for (int i = 0; i < OPERATIONS; i++) {
+                container.add(value);
+            }
+            sink += container.size();
+        });
+    }
+
+    @Test
+    void testLazyDeepCopyIsConstantUpFront() {
+        LinkedList<String> list = filledList(100_000);
+
+        assertAllocatesAtMost(0, () -> sink += list.lazyDeepCopy().size());
+    }
+
+    @Test
+    void testScansAreLinear() {
+        for (int size = 1_000; size <= 64_000; size *= 4) {
+            LinkedList<CountingValue> list = new LinkedList<>();
+            for (int i = 0; i < size; i++) {
+                list.add(new CountingValue(i));
+            }
+            CountingValue last = new CountingValue(size - 1);
+            CountingValue missing = new CountingValue(-1);
+
+            assertEquals(size, countEquals(() -> list.indexOf(last)), "indexOf at size " + size);
+            assertEquals(size, countEquals(() -> list.contains(missing)), "contains at size " + size);
+            assertEquals(size, countEquals(() -> list.remove(last)), "remove(T) at size " + size);
+        }
+    }
+
+    @Test
+    void testContainerRemoveByValueScansOnce() {
+        ClassContainer<CountingValue> container = new ClassContainer<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            container.add(new CountingValue(i));
+        }
+
+        assertEquals(500, countEquals(() -> container.remove(new CountingValue(499))));
+    }
+
+    @Test
+    void testScanMatchesByReferenceBeforeEquals() {
+        LinkedList<CountingValue> list = new LinkedList<>();
+        CountingValue[] values = new CountingValue[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new CountingValue(i);
+            list.add(values[i]);
+        }
+
+        // Элемент, совпадающий по ссылке, находится без вызова equals
+        assertEquals(499, countEquals(() -> list.indexOf(values[499])));
+        assertEquals(499, countEquals(() -> list.remove(values[499])));
+    }
+
+    @Test
+    @Tag("timing")
+    void testPositionalAccessIsLinear() {
+        // Время get(size / 2) должно расти линейно: при росте размера в 16 раз
+        // линейный обход замедляется в ~16 раз, квадратичный - в ~256 раз
+        long small = bestNanosPerGet(2_000);
+        long large = bestNanosPerGet(32_000);
+
+        assertTrue(large < small * 64,
+                "get(size / 2) grew super-linearly: " + small + " ns -> " + large + " ns");
+    }
+
+    @Test
+    @Tag("timing")
+    void testPositionalAccessNearEndsIsConstant() {
+        LinkedList<String> list = filledList(64_000);
+        long ends = bestNanos(() -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                sink += list.get(i & 1).length();
+                sink += list.get(63_999 - (i & 1)).length();
+            }
+        }) / (2L * OPERATIONS);
+        long middle = bestNanosPerGet(64_000);
+
+        assertTrue(ends * 100 < middle,
+                "get near the ends should not walk the list: ends " + ends + " ns, middle " + middle + " ns");
+    }
+
+    /**
+     * Проверяет, что действие выделяет не больше указанного объема памяти.
+     * Действие предварительно прогревается, чтобы исключить выделения при загрузке классов.
+     */
+    private void assertAllocatesAtMost(long budgetBytes, Runnable action) {
+        action.run();
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        action.run();
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated <= budgetBytes + SLACK_BYTES,
+                "allocated " + allocated + " bytes, budget " + budgetBytes);
+    }
+
+    private long countEquals(Runnable scan) {
+        CountingValue.equalsCalls = 0;
+        scan.run();
+        return CountingValue.equalsCalls;
+    }
+
+    private long bestNanosPerGet(int size) {
+        LinkedList<String> list = filledList(size);
+        int middle = size / 2;
+        int repetitions = 2_000_000 / size;
+        return bestNanos(() -> {
+            for (int i = 0; i < repetitions; i++) {
+                sink += list.get(middle).length();
+            }
+        }) / repetitions;
+    }
+
+    private long bestNanos(Runnable action) {
+        long best = Long.MAX_VALUE;
+        for (int trial = 0; trial < 7; trial++) {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(best, 1);
+    }
+
+    private static LinkedList<String> filledList(int size) {
+        LinkedList<String> list = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            list.add("value-" + i);
+        }
+        return list;
+    }
+
+    private static ClassContainer<String> filledContainer(int size) {
+        ClassContainer<String> container = new ClassContainer<>(size);
+        for (int i = 0; i < size; i++) {
+            container.add("value-" + i);
+        }
+        return container;
+    }
+
+    /**
+     * Элемент, считающий вызовы equals, по которым измеряется работа поиска.
+     */
+    private static final class CountingValue {
+        static long equalsCalls;
+        private final int id;
+
+        CountingValue(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            equalsCalls++;
+            return o instanceof CountingValue other && other.id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package ru.hamming;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.hamming.untils.LinkedList;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedClassContainerTest {
+
+    private ShardedClassContainer<String> container;
+
+    @BeforeEach
+    void setUp() {
+        container = new ShardedClassContainer<>(100, 4);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(100, container.getSizeContainer());
+        assertEquals(4, container.getShardCount());
+        assertEquals(0, container.size());
+        assertThrows(IllegalArgumentException.class, () -> new ShardedClassContainer<String>(10, 0));
+    }
+
+    @Test
+    void testAddRoundRobinAndGet() {
+        for (int i = 0; i < 8; i++) {
+            container.add(String.valueOf(i));
+        }
+
+        // Шард 0: 0, 4; шард 1: 1, 5; шард 2: 2, 6; шард 3: 3, 7
+        assertEquals(8, container.size());
+        assertEquals("0", container.get(0));
+        assertEquals("4", container.get(1));
+        assertEquals("1", container.get(2));
+        assertEquals("7", container.get(7));
+    }
+
+    @Test
+    void testAddByKeyFunction() {
+        ShardedClassContainer<Integer> keyed =
+                new ShardedClassContainer<>(100, 2, value -> value % 2, ForkJoinPool.commonPool());
+        keyed.add(1);
+        keyed.add(2);
+        keyed.add(3);
+        keyed.add(4);
+
+        // Четные элементы попадают в шард 0, нечетные - в шард 1
+        assertEquals("[2, 4, 1, 3]", keyed.getContainerValues().toString());
+        // Вставка по индексу обошла бы ключевую функцию
+        assertThrows(IllegalStateException.class, () -> keyed.add(0, 6));
+        assertEquals(4, keyed.size());
+    }
+
+    @Test
+    void testAddAtIndex() {
+        container.add(0, "10");
+        container.add(1, "30");
+        container.add(1, "20");
+
+        assertEquals(3, container.size());
+        assertEquals("10", container.get(0));
+        assertEquals("20", container.get(1));
+        assertEquals("30", container.get(2));
+    }
+
+    @Test
+    void testIndexOfAndContains() {
+        for (int i = 0; i < 100; i++) {
+            container.add(String.valueOf(i));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            int index = container.indexOf(String.valueOf(i));
+            assertEquals(String.valueOf(i), container.get(index));
+            assertTrue(container.contains(String.valueOf(i)));
+        }
+        assertEquals(-1, container.indexOf("100"));
+        assertFalse(container.contains("100"));
+    }
+
+    @Test
+    void testIndexOfReturnsFirstOccurrence() {
+        for (int i = 0; i < 8; i++) {
+            container.add(String.valueOf(i % 2));
+        }
+
+        assertEquals(0, container.indexOf("0"));
+        assertEquals(2, container.indexOf("1"));
+    }
+
+    @Test
+    void testRemoveByValue() {
+        container.add("1");
+        container.add("2");
+        container.add("3");
+
+        assertTrue(container.remove("2"));
+        assertFalse(container.remove("5"));
+        assertEquals(2, container.size());
+        assertFalse(container.contains("2"));
+    }
+
+    @Test
+    void testRemoveByIndex() {
+        for (int i = 0; i < 8; i++) {
+            container.add(String.valueOf(i));
+        }
+
+        String removed = container.remove(2);
+        assertEquals("1", removed);
+        assertEquals(7, container.size());
+        assertEquals("5", container.get(2));
+    }
+
+    @Test
+    void testFilterAndAggregate() {
+        for (int i = 1; i <= 100; i++) {
+            container.add(String.valueOf(i));
+        }
+
+        LinkedList<String> even = container.filter(value -> Integer.parseInt(value) % 2 == 0);
+        assertEquals(50, even.size());
+
+        int sum = container.aggregate(() -> 0, (acc, value) -> acc + Integer.parseInt(value), Integer::sum);
+        assertEquals(5050, sum);
+    }
+
+    @Test
+    void testConcurrentAdd() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    container.add(String.valueOf(i));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, container.size());
+    }
+
+    @Test
+    void testConcurrentReadsDuringAppends() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            container.add(String.valueOf(i));
+        }
+        Thread writer = new Thread(() -> {
+            for (int i = 100; i < 2100; i++) {
+                container.add(String.valueOf(i));
+            }
+        });
+        Thread[] readers = new Thread[4];
+        int[] misses = new int[1];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (container.get(i % 100) == null || container.indexOf(String.valueOf(i % 100)) == -1) {
+                        synchronized (misses) {
+                            misses[0]++;
+                        }
+                    }
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, misses[0]);
+        assertEquals(2100, container.size());
+    }
+
+    @Test
+    void testOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> container.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> container.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> container.add(1, "1"));
+
+        container.add("1");
+        assertThrows(IndexOutOfBoundsException.class, () -> container.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> container.get(-1));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.hamming.untils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassLayoutSizerTest {
+
+    private final ClassLayoutSizer sizer = ClassLayoutSizer.INSTANCE;
+
+    @Test
+    void testNull() {
+        assertEquals(0, sizer.sizeOf(null));
+    }
+
+    @Test
+    void testShallowSize() {
+        // Заголовок 12 байт + int 4 байта
+        assertEquals(16, sizer.sizeOf(42));
+        // Заголовок 12 байт + long 8 байт, выравнивание до 24
+        assertEquals(24, sizer.sizeOf(42L));
+        // Заголовок 12 байт + три ссылки по 4 байта
+        assertEquals(24, sizer.shallowSize(LinkedList.Node.class));
+    }
+
+    @Test
+    void testArrays() {
+        assertEquals(16, sizer.sizeOf(new int[0]));
+        assertEquals(56, sizer.sizeOf(new long[5]));
+        assertEquals(24, sizer.sizeOf(new Object[2]));
+    }
+
+    @Test
+    void testStringIncludesContent() {
+        long empty = sizer.sizeOf("");
+        assertEquals(empty + 8, sizer.sizeOf("abcdefgh"));
+        assertTrue(sizer.sizeOf("a".repeat(100)) > 100);
+    }
+
+    @Test
+    void testNonLatin1StringUsesTwoBytesPerChar() {
+        // 24 байта объекта String + массив: 16 + 6 -> 24 для Latin-1, 16 + 12 -> 32 для UTF-16
+        assertEquals(48, sizer.sizeOf("abcdef"));
+        assertEquals(56, sizer.sizeOf("привет"));
+        assertEquals(sizer.sizeOf("é".repeat(100)), sizer.sizeOf("e".repeat(100)));
+        assertEquals(sizer.sizeOf("ж".repeat(200)), sizer.sizeOf("ж" + "a".repeat(199)));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.hamming.untils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternerTest {
+
+    @Test
+    void testInternReturnsCanonicalInstance() {
+        Interner<String> interner = new Interner<>(16);
+        String first = new String("status");
+        String second = new String("status");
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertNull(interner.intern(null));
+    }
+
+    @Test
+    void testPoolIsBounded() {
+        Interner<Integer> interner = new Interner<>(8);
+        assertEquals(8, interner.capacity());
+        assertEquals(4, new Interner<Integer>(1).capacity());
+        assertEquals(128, new Interner<Integer>(100).capacity());
+
+        // Переполнение пула не ломает канонизацию: значение всегда равно исходному
+        for (int i = 0; i < 1000; i++) {
+            Integer value = 1000 + i;
+            assertEquals(value, interner.intern(value));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Interner<String>(0));
+    }
+}
@@ -175,6 +175,82 @@ public class LinkedListTest {
         assertEquals(list.get(1), deepCopy.get(1));
     }
 
+    @Test
+    void testLazyDeepCopyClonesOnlyTouchedElements() {
+        LinkedList<Box> source = boxes(10);
+        Box.clones = 0;
+
+        LinkedList<Box> lazy = source.lazyDeepCopy();
+        assertEquals(10, lazy.size());
+        assertEquals(0, Box.clones);
+
+        assertEquals(2, lazy.get(2).value);
+        assertEquals(8, lazy.get(8).value);
+        assertEquals(5, lazy.get(5).value);
+        lazy.get(2);
+        assertEquals(3, Box.clones);
+
+        // Поиск сравнивает исходные элементы и не клонирует их
+        assertEquals(7, lazy.indexOf(new Box(7)));
+        assertEquals(3, Box.clones);
+        assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", lazy.toString());
+        assertEquals(3, Box.clones);
+
+        // Чтение источника ничего не клонирует
+        assertNotSame(source.get(2), lazy.get(2));
+        source.forEach(box -> assertNotNull(box));
+        assertEquals(3, Box.clones);
+    }
+
+    @Test
+    void testLazyDeepCopyIsIsolatedFromSourceChanges() {
+        LinkedList<Box> source = boxes(6);
+        LinkedList<Box> lazy = source.lazyDeepCopy();
+        lazy.get(0);
+
+        source.add(new Box(6));
+        source.remove(1);
+        source.add(0, new Box(-1));
+
+        assertEquals("[0, 1, 2, 3, 4, 5]", lazy.toString());
+        source.clear();
+        assertEquals(6, lazy.size());
+        assertEquals(5, lazy.get(5).value);
+    }
+
+    @Test
+    void testLazyDeepCopyMutationsDoNotAffectSource() {
+        LinkedList<Box> source = boxes(4);
+        LinkedList<Box> lazy = source.lazyDeepCopy();
+
+        lazy.get(1).value = 42;
+        lazy.add(new Box(4));
+        lazy.remove(0);
+        lazy.add(1, new Box(7));
+
+        assertEquals("[0, 1, 2, 3]", source.toString());
+        assertEquals("[42, 7, 2, 3, 4]", lazy.toString());
+    }
+
+    @Test
+    void testLazyDeepCopyOfLazyCopy() {
+        LinkedList<Box> source = boxes(5);
+        LinkedList<Box> first = source.lazyDeepCopy();
+        LinkedList<Box> second = first.lazyDeepCopy();
+
+        first.get(2);
+        source.remove(0);
+
+        assertEquals("[0, 1, 2, 3, 4]", second.toString());
+        assertNotSame(first.get(2), second.get(2));
+        assertNotSame(first.get(3), second.get(3));
+        second.get(2).value = 20;
+        assertEquals(2, first.get(2).value);
+        assertEquals(5, second.toArray().length);
+        assertTrue(source.lazyDeepCopy().lazyDeepCopy().size() == 4);
+        assertTrue(new LinkedList<Box>().lazyDeepCopy().isEmpty());
+    }
+
     @Test
     void testCopyConstructor() {
         list.add(1);
@@ -198,6 +274,102 @@ public class LinkedListTest {
         assertTrue(result.equals("[1, 2, 3]") || result.equals("[1,2,3]"));
     }
 
+    @Test
+    void testForEach() {
+        list.add(1);
+        list.add(2);
+        list.add(3);
+
+        int[] sum = {0};
+        list.forEach(value -> sum[0] += value);
+        assertEquals(6, sum[0]);
+    }
+
+    @Test
+    void testAddNodeAndUnlink() {
+        list.add(1);
+        LinkedList.Node<Integer> node = list.addNode(2);
+        list.add(3);
+
+        assertEquals(2, node.getData());
+        assertTrue(list.unlink(node));
+        assertFalse(list.unlink(node));
+        // Удаленный узел не удерживает элемент
+        assertNull(node.getData());
+        assertEquals("[1, 3]", list.toString());
+    }
+
+    @Test
+    void testFindNode() {
+        list.add(1);
+        list.add(2);
+
+        assertEquals(2, list.findNode(2).getData());
+        assertNull(list.findNode(3));
+    }
+
+    @Test
+    void testUnlinkAll() {
+        LinkedList<LinkedList.Node<Integer>> nodes = new LinkedList<>();
+        LinkedList.Node<Integer> removedEarlier = list.addNode(0);
+        nodes.add(list.addNode(1));
+        list.add(2);
+        nodes.add(list.addNode(3));
+        nodes.add(removedEarlier);
+        list.add(4);
+        list.unlink(removedEarlier);
+
+        StringBuilder removed = new StringBuilder();
+        assertEquals(2, list.unlinkAll(nodes, (value, index) -> {
+            // Обработчик видит уже согласованный список
+            assertEquals(2, list.size());
+            assertEquals(4, list.get(1));
+            removed.append(value).append('@').append(index).append(' ');
+        }));
+
+        // Индекс каждого элемента учитывает удаленные перед ним
+        assertEquals("1@0 3@1 ", removed.toString());
+        assertEquals("[2, 4]", list.toString());
+        assertEquals(4, list.get(1));
+        list.add(5);
+        list.add(0, -1);
+        assertEquals("[-1, 2, 4, 5]", list.toString());
+        assertEquals(2, list.findNode(2).getData());
+        assertNull(nodes.get(0).getData());
+    }
+
+    @Test
+    void testUnlinkAfterClear() {
+        LinkedList.Node<Integer> node = list.addNode(1);
+        list.clear();
+
+        assertFalse(list.unlink(node));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void testPositionalAccessWalksLinearly() {
+        for (int size = 1_000; size <= 64_000; size *= 4) {
+            LinkedList<Integer> filled = new LinkedList<>();
+            for (int i = 0; i < size; i++) {
+                filled.add(i);
+            }
+
+            // Обход с ближайшего конца: до середины ровно половина списка
+            filled.traversedNodes = 0;
+            assertEquals(size / 2, filled.get(size / 2));
+            assertEquals(size / 2 - 1, filled.traversedNodes, "get(size / 2) at size " + size);
+
+            // Элементы у концов доступны без обхода
+            filled.traversedNodes = 0;
+            filled.get(0);
+            filled.get(1);
+            filled.get(size - 2);
+            filled.get(size - 1);
+            assertEquals(2, filled.traversedNodes, "get near the ends at size " + size);
+        }
+    }
+
     @Test
     void testGetOutOfBounds() {
         assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
@@ -206,4 +378,45 @@ public class LinkedListTest {
         list.add(1);
         assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
     }
-}
\ No newline at end of file
+
+    private static LinkedList<Box> boxes(int count) {
+        LinkedList<Box> boxes = new LinkedList<>();
+        for (int i = 0; i < count; i++) {
+            boxes.add(new Box(i));
+        }
+        return boxes;
+    }
+
+    /**
+     * Изменяемый клонируемый элемент, считающий количество клонирований.
+     */
+    public static class Box implements Cloneable {
+        static int clones;
+        int value;
+
+        Box(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public Box clone() {
+            clones++;
+            return new Box(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Box other && other.value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.hamming.untils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReferenceCounterTest {
+
+    private ReferenceCounter<String> counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new ReferenceCounter<>();
+    }
+
+    @Test
+    void testCountsByIdentity() {
+        String first = new String("value");
+        String second = new String("value");
+
+        assertEquals(1, counter.increment(first));
+        assertEquals(2, counter.increment(first));
+        assertEquals(1, counter.increment(second));
+        assertEquals(2, counter.count(first));
+        assertEquals(1, counter.count(second));
+        assertEquals(2, counter.size());
+    }
+
+    @Test
+    void testDecrementForgetsAtZero() {
+        String value = "value";
+        counter.increment(value);
+        counter.increment(value);
+
+        assertEquals(1, counter.decrement(value));
+        assertEquals(0, counter.decrement(value));
+        assertEquals(0, counter.size());
+        assertEquals(0, counter.count(value));
+        assertEquals(-1, counter.decrement(value));
+    }
+
+    @Test
+    void testManyInstancesSurviveResizeAndRemoval() {
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new String("v" + (i % 10));
+            counter.increment(values[i]);
+        }
+        assertEquals(values.length, counter.size());
+
+        for (int i = 0; i < values.length; i += 2) {
+            assertEquals(0, counter.decrement(values[i]));
+        }
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i % 2, counter.count(values[i]), "at " + i);
+        }
+        assertEquals(values.length / 2, counter.size());
+    }
+
+    @Test
+    void testNullIsRejected() {
+        assertThrows(NullPointerException.class, () -> counter.increment(null));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.hamming.untils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    private TimingWheel<Integer> wheel;
+    private LinkedList<Integer> expired;
+
+    @BeforeEach
+    void setUp() {
+        // Тик равен одной единице времени
+        wheel = new TimingWheel<>(1, 0);
+        expired = new LinkedList<>();
+    }
+
+    @Test
+    void testExpiresAtDeadline() {
+        wheel.schedule(1, 10);
+        wheel.schedule(2, 5);
+
+        assertEquals(0, wheel.advance(4, expired::add));
+        assertEquals(1, wheel.advance(5, expired::add));
+        assertEquals(2, expired.get(0));
+        assertEquals(1, wheel.advance(10, expired::add));
+        assertEquals(1, expired.get(1));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testCascadeFromUpperLevels() {
+        int[] deadlines = {63, 64, 65, 4095, 4096, 4097, 300_000, 20_000_000};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(0, wheel.advance(deadlines[i] - 1, expired::add), "early at " + deadlines[i]);
+            assertEquals(1, wheel.advance(deadlines[i], expired::add), "missed at " + deadlines[i]);
+            assertEquals(i, expired.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testIdleWheelSkipsEmptyTicks() {
+        // Миллисекундный тик: срок через 7 дней, простой в сутки. Обход каждого тика
+        // занял бы сотни миллионов итераций, перескок по границам каскада - единицы тысяч
+        long day = 86_400_000L;
+        wheel.schedule(1, 7 * day);
+        wheel.schedule(2, day + 5);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertEquals(0, wheel.advance(day + 4, expired::add));
+            assertEquals(1, wheel.advance(2 * day, expired::add));
+            assertEquals(0, wheel.advance(7 * day - 1, expired::add));
+            assertEquals(1, wheel.advance(7 * day, expired::add));
+        });
+        assertEquals(2, expired.get(0));
+        assertEquals(1, expired.get(1));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testNegativeStartTime() {
+        TimingWheel<Integer> negative = new TimingWheel<>(1, -10_000);
+        negative.schedule(1, -5_000);
+        negative.schedule(2, 3);
+
+        assertEquals(0, negative.advance(-5_001, expired::add));
+        assertEquals(1, negative.advance(-5_000, expired::add));
+        assertEquals(0, negative.advance(2, expired::add));
+        assertEquals(1, negative.advance(3, expired::add));
+    }
+
+    @Test
+    void testPastDeadlineIsRejected() {
+        wheel.advance(100, expired::add);
+
+        assertFalse(wheel.schedule(1, 50));
+        assertFalse(wheel.schedule(2, 100));
+        assertTrue(wheel.schedule(3, 101));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void testDeadlineRoundsDownToTick() {
+        TimingWheel<Integer> coarse = new TimingWheel<>(10, 0);
+        coarse.schedule(1, 25);
+
+        assertEquals(0, coarse.advance(19, expired::add));
+        assertEquals(1, coarse.advance(20, expired::add));
+    }
+
+    @Test
+    void testInvalidTick() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<Integer>(0, 0));
+    }
+}